@@ -0,0 +1,9 @@
+#!/bin/sh
+# Runs the benchmarks under a virtual X server and writes the results as JSON.
+# Additional arguments are passed to JMH, e.g. a benchmark pattern or "-prof gc".
+set -e
+cd "$(dirname "$0")"
+mvn -B -q package
+mkdir -p target/results
+xvfb-run -a -s "-screen 0 1280x1024x24" \
+	java -jar target/benchmarks.jar -rf json -rff "target/results/jmh-$(date +%Y%m%d-%H%M%S).json" "$@"
@@ -0,0 +1,98 @@
+package org.swtextensions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the per-key dispatch cost with 500 bindings, registered either in
+ * the {@link AcceleratorRegistry} or as one display filter per binding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AcceleratorRegistryBenchmark {
+	private static final int BINDING_COUNT = 500;
+	private static final int[] MODIFIERS = { SWT.MOD1, SWT.MOD1 | SWT.SHIFT, SWT.MOD2 | SWT.MOD3, SWT.MOD3 };
+
+	@Param({ "registry", "filters" })
+	public String dispatcher;
+
+	private DisplayState state;
+	private Listener[] filters;
+	private Text text;
+	private Event boundKey;
+	private Event unboundKey;
+	private int handled;
+
+	/**
+	 * Registers the bindings and prepares a bound and an unbound key event.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		this.state = state;
+		text = new Text(state.shell, SWT.SINGLE);
+
+		AcceleratorRegistry registry = AcceleratorRegistry.get(state.display);
+		filters = new Listener[BINDING_COUNT];
+		for (int i = 0; i < BINDING_COUNT; i++) {
+			int stateMask = MODIFIERS[i % MODIFIERS.length];
+			int keyCode = i / MODIFIERS.length < 26 ? 'a' + i / MODIFIERS.length : SWT.F1 + i / MODIFIERS.length;
+			if (dispatcher.equals("registry")) {
+				registry.register(stateMask, keyCode, () -> handled++);
+			} else {
+				filters[i] = e -> {
+					if ((e.stateMask & SWT.MODIFIER_MASK) == stateMask && e.keyCode == keyCode) {
+						e.doit = false;
+						handled++;
+					}
+				};
+				state.display.addFilter(SWT.KeyDown, filters[i]);
+			}
+		}
+
+		boundKey = new Event();
+		boundKey.stateMask = SWT.MOD1;
+		boundKey.keyCode = 'c';
+		unboundKey = new Event();
+		unboundKey.keyCode = 'c';
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (Listener filter : filters) {
+			if (filter != null) {
+				state.display.removeFilter(SWT.KeyDown, filter);
+			}
+		}
+		text.dispose();
+	}
+
+	@Benchmark
+	public boolean dispatchBoundKey() {
+		boundKey.doit = true;
+		text.notifyListeners(SWT.KeyDown, boundKey);
+		return boundKey.doit;
+	}
+
+	@Benchmark
+	public boolean dispatchUnboundKey() {
+		unboundKey.doit = true;
+		text.notifyListeners(SWT.KeyDown, unboundKey);
+		return unboundKey.doit;
+	}
+}
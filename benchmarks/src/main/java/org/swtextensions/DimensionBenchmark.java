@@ -0,0 +1,78 @@
+package org.swtextensions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Label;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cached text size and extent calculations of {@link Dimension}
+ * against measuring with a new GC on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DimensionBenchmark {
+	private Label label;
+	private String[] strings;
+
+	/**
+	 * Creates the measured control and the strings of a typical form.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		label = new Label(state.shell, SWT.NONE);
+		strings = new String[50];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = "Field label " + i + ":";
+		}
+	}
+
+	@Benchmark
+	public Point getTextSize() {
+		return Dimension.getTextSize(label);
+	}
+
+	@Benchmark
+	public Point getTextSizeWithNewGC() {
+		GC gc = new GC(label);
+		try {
+			gc.setFont(label.getFont());
+			FontMetrics fm = gc.getFontMetrics();
+			return new Point((int) fm.getAverageCharacterWidth(), fm.getHeight());
+		} finally {
+			gc.dispose();
+		}
+	}
+
+	@Benchmark
+	public Point[] getTextExtents() {
+		return Dimension.getTextExtents(label, strings);
+	}
+
+	@Benchmark
+	public Point[] getTextExtentsWithNewGC() {
+		Point[] extents = new Point[strings.length];
+		for (int i = 0; i < strings.length; i++) {
+			GC gc = new GC(label);
+			try {
+				extents[i] = gc.textExtent(strings[i]);
+			} finally {
+				gc.dispose();
+			}
+		}
+		return extents;
+	}
+}
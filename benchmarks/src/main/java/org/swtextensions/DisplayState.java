@@ -0,0 +1,49 @@
+package org.swtextensions;
+
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The display and shell shared by the benchmarks of a trial. The display is
+ * created on the benchmark thread, which therefore acts as the UI thread.
+ */
+@State(Scope.Thread)
+public class DisplayState {
+	public Display display;
+	public Shell shell;
+
+	/**
+	 * Creates the display and an open shell.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		display = new Display();
+		shell = new Shell(display);
+		shell.setLayout(new FillLayout());
+		shell.setSize(800, 600);
+		shell.open();
+	}
+
+	/**
+	 * Processes all pending events of the display.
+	 */
+	public void dispatchEvents() {
+		while (display.readAndDispatch()) {
+			// Drain the event queue
+		}
+	}
+
+	/**
+	 * Disposes the display.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		display.dispose();
+	}
+}
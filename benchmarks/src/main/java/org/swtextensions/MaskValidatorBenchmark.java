@@ -0,0 +1,119 @@
+package org.swtextensions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.VerifyEvent;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures a keystroke in the middle of a list of part numbers and a paste of
+ * further part numbers through {@link MaskValidator}, against re-matching the
+ * rebuilt text with java.util.regex on every edit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaskValidatorBenchmark {
+	private static final String PATTERN = "([A-Z]{2}-\\d{4};)*([A-Z]{2}-\\d{4})?";
+
+	@Param({ "10", "1000" })
+	public int partCount;
+
+	private Text text;
+	private String oldText;
+	private String paste;
+	private VerifyEvent keystroke;
+	private MaskValidator validator;
+	private Pattern pattern;
+
+	/**
+	 * Creates a text field with the part numbers and the validator.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < partCount; i++) {
+			builder.append("AB-").append(String.format("%04d", i % 10000)).append(';');
+		}
+		oldText = builder.toString();
+		paste = oldText;
+
+		validator = MaskValidator.ofPattern(PATTERN);
+		pattern = Pattern.compile(PATTERN);
+		text = new Text(state.shell, SWT.SINGLE);
+		text.addVerifyListener(validator);
+		text.setText(oldText);
+
+		// Replace a digit in the middle of the list
+		Event e = new Event();
+		e.widget = text;
+		e.display = state.display;
+		e.start = oldText.length() / 2 / 8 * 8 + 3;
+		e.end = e.start + 1;
+		e.text = "7";
+		keystroke = new VerifyEvent(e);
+	}
+
+	@TearDown
+	public void tearDown() {
+		text.dispose();
+	}
+
+	@Benchmark
+	public boolean verifyKeystroke() {
+		keystroke.doit = true;
+		validator.verifyText(keystroke);
+		return keystroke.doit;
+	}
+
+	@Benchmark
+	public boolean acceptsKeystroke() {
+		return validator.accepts(oldText, keystroke.start, keystroke.end, keystroke.text);
+	}
+
+	@Benchmark
+	public boolean regexKeystroke() {
+		return regexAccepts(oldText, keystroke.start, keystroke.end, keystroke.text);
+	}
+
+	@Benchmark
+	public boolean acceptsPaste() {
+		return validator.accepts(oldText, oldText.length(), oldText.length(), paste);
+	}
+
+	@Benchmark
+	public boolean regexPaste() {
+		return regexAccepts(oldText, oldText.length(), oldText.length(), paste);
+	}
+
+	/**
+	 * Checks an edit by rebuilding the text and matching it against the pattern,
+	 * accepting texts that are prefixes of a match.
+	 *
+	 * @param oldText  The current text.
+	 * @param start    The start of the replaced range.
+	 * @param end      The end of the replaced range.
+	 * @param inserted The inserted text.
+	 * @return True if the resulting text is acceptable, false otherwise.
+	 */
+	private boolean regexAccepts(String oldText, int start, int end, String inserted) {
+		String newText = oldText.substring(0, start) + inserted + oldText.substring(end);
+		Matcher matcher = pattern.matcher(newText);
+		return matcher.matches() || matcher.hitEnd();
+	}
+}
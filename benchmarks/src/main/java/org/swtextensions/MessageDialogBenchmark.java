@@ -0,0 +1,37 @@
+package org.swtextensions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.widgets.Shell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures how {@link MessageDialog} acquires the parent shell of its message
+ * boxes when no shell is active.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageDialogBenchmark {
+	/**
+	 * Hides the shared shell, so that no shell is active.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		state.shell.setVisible(false);
+		state.dispatchEvents();
+	}
+
+	@Benchmark
+	public Shell getShell() {
+		return MessageDialog.getShell();
+	}
+}
@@ -0,0 +1,118 @@
+package org.swtextensions;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.VerifyEvent;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures a single keystroke through {@link NumberValidator} against the
+ * previous implementation, which rebuilt the text and parsed it with
+ * Integer.parseInt. Run with "-prof gc" to compare the allocations per
+ * keystroke.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumberValidatorBenchmark {
+	@Param({ "7", "x" })
+	public String keystroke;
+
+	private Text text;
+	private VerifyEvent event;
+	private NumberValidator intValidator;
+	private NumberValidator decimalValidator;
+
+	/**
+	 * Creates a text field with a number and a keystroke appended to it.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		text = new Text(state.shell, SWT.SINGLE);
+		text.setText("1234567");
+
+		Event e = new Event();
+		e.widget = text;
+		e.display = state.display;
+		e.start = 3;
+		e.end = 3;
+		e.text = keystroke;
+		event = new VerifyEvent(e);
+
+		intValidator = new NumberValidator();
+		decimalValidator = NumberValidator.ofDecimal(Locale.GERMANY, -1e9, 1e9, 2);
+	}
+
+	@Benchmark
+	public boolean verifyText() {
+		event.doit = true;
+		intValidator.verifyText(event);
+		return event.doit;
+	}
+
+	@Benchmark
+	public boolean verifyTextLegacy() {
+		event.doit = true;
+		legacyVerifyText(event);
+		return event.doit;
+	}
+
+	@Benchmark
+	public boolean acceptsInt() {
+		return intValidator.accepts("1234567", 3, 3, keystroke);
+	}
+
+	@Benchmark
+	public boolean acceptsDecimal() {
+		return decimalValidator.accepts("1.234,5", 3, 3, keystroke);
+	}
+
+	@Benchmark
+	public boolean parseLegacy() {
+		String oldStr = "1234567";
+		String newStr = oldStr.substring(0, 3) + keystroke + oldStr.substring(3);
+		try {
+			Integer.parseInt(newStr);
+			return true;
+		} catch (NumberFormatException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * The verification of the previous NumberValidator implementation.
+	 *
+	 * @param event The verify event.
+	 */
+	private static void legacyVerifyText(VerifyEvent event) {
+		Text textField = (Text) event.getSource();
+		String oldStr = textField.getText();
+		String newStr = oldStr.substring(0, event.start) + event.text + oldStr.substring(event.end);
+
+		boolean isInt = true;
+		if (!newStr.equals("")) {
+			try {
+				Integer.parseInt(newStr);
+			} catch (NumberFormatException ex) {
+				isInt = false;
+			}
+		}
+
+		if (!isInt) {
+			event.doit = false;
+		}
+	}
+}
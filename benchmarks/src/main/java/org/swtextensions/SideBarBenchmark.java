@@ -0,0 +1,124 @@
+package org.swtextensions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StackLayout;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures populating a {@link SideBar} pane by pane and in one batch,
+ * switching its panes and filtering its items for 10 to 10,000 panes. All items
+ * share a few panes, so the results reflect the cost of the sidebar rather than
+ * of the panes.
+ * <p>
+ * The filter benchmark types a prefix character by character and clears it
+ * again; each step should stay well below a 16 ms frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SideBarBenchmark {
+	private static final String[] FILTER_STEPS = { "i", "it", "ite", "item", "item 1", "item 12", "item 1", "item",
+			"" };
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int paneCount;
+
+	@Param({ "false", "true" })
+	public boolean virtual;
+
+	private DisplayState state;
+	private Composite viewport;
+	private Composite[] panes;
+	private Map<String, Composite> paneMap;
+	private SideBar sideBar;
+	private int next;
+
+	/**
+	 * Creates the viewport, the shared panes and a populated sidebar.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		this.state = state;
+		viewport = new Composite(state.shell, SWT.NONE);
+		viewport.setLayout(new StackLayout());
+		panes = new Composite[4];
+		for (int i = 0; i < panes.length; i++) {
+			panes[i] = new Composite(viewport, SWT.NONE);
+			panes[i].setLayout(new FillLayout());
+		}
+		paneMap = new LinkedHashMap<>();
+		for (int i = 0; i < paneCount; i++) {
+			paneMap.put("Item " + i, panes[i % panes.length]);
+		}
+		sideBar = populate();
+	}
+
+	@TearDown
+	public void tearDown() {
+		sideBar.dispose();
+		viewport.dispose();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void addPane() {
+		populate().dispose();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void addPanes() {
+		SideBar bar = new SideBar(state.shell, virtual ? SWT.VIRTUAL : SWT.NONE);
+		bar.setViewport(viewport);
+		bar.addPanes(paneMap);
+		bar.dispose();
+	}
+
+	@Benchmark
+	public void changePaneByIndex() {
+		next = (next + 1) % paneCount;
+		sideBar.changePane(next);
+	}
+
+	@Benchmark
+	public void changePaneByPane() {
+		next = (next + 1) % panes.length;
+		sideBar.changePane(panes[next]);
+	}
+
+	@Benchmark
+	public void setFilter() {
+		next = (next + 1) % FILTER_STEPS.length;
+		sideBar.setFilter(FILTER_STEPS[next]);
+	}
+
+	/**
+	 * Creates a sidebar with the configured number of panes.
+	 *
+	 * @return The sidebar.
+	 */
+	private SideBar populate() {
+		SideBar bar = new SideBar(state.shell, virtual ? SWT.VIRTUAL : SWT.NONE);
+		bar.setViewport(viewport);
+		for (int i = 0; i < paneCount; i++) {
+			bar.addPane("Item " + i, panes[i % panes.length]);
+		}
+		return bar;
+	}
+}
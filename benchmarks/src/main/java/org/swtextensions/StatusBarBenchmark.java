@@ -0,0 +1,83 @@
+package org.swtextensions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the throughput of panel text updates of a {@link StatusBar} with
+ * native and owner-drawn panels, both set directly and posted through the
+ * coalescing update pipeline. Panels sized to their content lay out the status
+ * bar again whenever the width of a counter changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StatusBarBenchmark {
+	private static final int PANEL_COUNT = 8;
+
+	@Param({ "false", "true" })
+	public boolean ownerDrawn;
+
+	@Param({ "FILL", "CONTENT" })
+	public StatusBar.WidthPolicy policy;
+
+	private DisplayState state;
+	private StatusBar statusBar;
+	private String[] texts;
+	private int next;
+
+	/**
+	 * Creates the status bar and the texts of its counters.
+	 *
+	 * @param state The display state.
+	 */
+	@Setup
+	public void setUp(DisplayState state) {
+		this.state = state;
+		statusBar = new StatusBar(state.shell, PANEL_COUNT, ownerDrawn);
+		for (int i = 0; i < PANEL_COUNT; i++) {
+			statusBar.setPanelWidth(i, policy, 0);
+		}
+		state.shell.layout(true, true);
+		texts = new String[1000];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = "Processed " + i;
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		statusBar.dispose();
+	}
+
+	@Benchmark
+	public void setPanelText() {
+		next = (next + 1) % texts.length;
+		statusBar.setPanelText(next % PANEL_COUNT, texts[next]);
+	}
+
+	@Benchmark
+	public void setPanelTextAndPaint() {
+		next = (next + 1) % texts.length;
+		statusBar.setPanelText(next % PANEL_COUNT, texts[next]);
+		statusBar.update();
+	}
+
+	@Benchmark
+	public void postPanelText() {
+		next = (next + 1) % texts.length;
+		statusBar.postPanelText(next % PANEL_COUNT, texts[next]);
+		if (next == 0) {
+			state.dispatchEvents();
+		}
+	}
+}
@@ -0,0 +1,391 @@
+package org.swtextensions;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Menu;
+import org.eclipse.swt.widgets.MenuItem;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * A central registry of keyboard accelerators for a display.
+ * <p>
+ * The registry installs a single key down filter on its display and looks up
+ * the handlers of a key in a table keyed on the key code packed with the
+ * modifier keys, so a key without bindings costs a single table probe.
+ * Bindings can be global or scoped to a shell, in which case they are only
+ * active while a control of that shell has the focus and are removed when the
+ * shell is disposed.
+ */
+public final class AcceleratorRegistry {
+	private static final Map<Display, AcceleratorRegistry> registries = new ConcurrentHashMap<>();
+
+	private final Display display;
+	private final BindingTable bindings = new BindingTable();
+
+	/**
+	 * Constructs the registry of a display and installs its key down filter.
+	 *
+	 * @param display The display whose key events to dispatch.
+	 */
+	private AcceleratorRegistry(Display display) {
+		this.display = display;
+		display.addFilter(SWT.KeyDown, new Listener() {
+			@Override
+			public void handleEvent(Event e) {
+				dispatch(e);
+			}
+		});
+	}
+
+	/**
+	 * Retrieves the registry of the specified display, creating it if necessary.
+	 * Must be called on the UI thread of the display.
+	 *
+	 * @param display The display.
+	 * @return The registry of the display.
+	 */
+	public static AcceleratorRegistry get(Display display) {
+		AcceleratorRegistry registry = registries.get(display);
+		if (registry == null) {
+			registry = new AcceleratorRegistry(display);
+			registries.put(display, registry);
+			display.disposeExec(() -> registries.remove(display));
+		}
+		return registry;
+	}
+
+	/**
+	 * Registers a global accelerator, replacing a global handler of the same key.
+	 *
+	 * @param stateMask The modifier keys, e.g. SWT.MOD1 | SWT.SHIFT.
+	 * @param keyCode   The key code, e.g. 'w' or SWT.F5.
+	 * @param handler   The handler to run when the key is pressed.
+	 */
+	public void register(int stateMask, int keyCode, Runnable handler) {
+		register(null, stateMask, keyCode, handler);
+	}
+
+	/**
+	 * Registers an accelerator scoped to a shell, replacing a handler of the same
+	 * key and shell. The binding is removed when the shell is disposed.
+	 *
+	 * @param shell     The shell in which the accelerator is active, or null for
+	 *                  a global accelerator.
+	 * @param stateMask The modifier keys, e.g. SWT.MOD1 | SWT.SHIFT.
+	 * @param keyCode   The key code, e.g. 'w' or SWT.F5.
+	 * @param handler   The handler to run when the key is pressed.
+	 */
+	public void register(Shell shell, int stateMask, int keyCode, Runnable handler) {
+		int key = pack(stateMask, keyCode);
+		if (key == 0 || handler == null) {
+			throw new IllegalArgumentException();
+		}
+		Binding first = remove(bindings.get(key), shell);
+		bindings.put(key, new Binding(shell, handler, first));
+
+		if (shell != null && shell.getData(AcceleratorRegistry.class.getName()) == null) {
+			shell.setData(AcceleratorRegistry.class.getName(), Boolean.TRUE);
+			shell.addListener(SWT.Dispose, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					unregisterAll(shell);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Removes a global accelerator.
+	 *
+	 * @param stateMask The modifier keys.
+	 * @param keyCode   The key code.
+	 */
+	public void unregister(int stateMask, int keyCode) {
+		unregister(null, stateMask, keyCode);
+	}
+
+	/**
+	 * Removes an accelerator scoped to a shell.
+	 *
+	 * @param shell     The shell of the accelerator, or null for a global
+	 *                  accelerator.
+	 * @param stateMask The modifier keys.
+	 * @param keyCode   The key code.
+	 */
+	public void unregister(Shell shell, int stateMask, int keyCode) {
+		int key = pack(stateMask, keyCode);
+		Binding first = remove(bindings.get(key), shell);
+		if (first != null) {
+			bindings.put(key, first);
+		} else {
+			bindings.remove(key);
+		}
+	}
+
+	/**
+	 * Returns the number of registered accelerators.
+	 *
+	 * @return The number of bindings.
+	 */
+	public int size() {
+		int size = 0;
+		for (Object value : bindings.values) {
+			for (Binding binding = (Binding) value; binding != null; binding = binding.next) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Attaches an action to an item of the system menu, if the platform has a
+	 * system menu.
+	 *
+	 * @param id     The ID of the system menu item, e.g. SWT.ID_ABOUT.
+	 * @param action The action to run when the item is selected.
+	 */
+	public void registerSystemMenuItem(int id, Runnable action) {
+		Menu systemMenu = display.getSystemMenu();
+		if (systemMenu == null) {
+			return;
+		}
+
+		for (MenuItem systemItem : systemMenu.getItems()) {
+			if (systemItem.getID() == id) {
+				systemItem.addSelectionListener(new SelectionAdapter() {
+					@Override
+					public void widgetSelected(SelectionEvent e) {
+						action.run();
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Dispatches a key down event to the handler of the focused shell or to the
+	 * global handler of the key.
+	 *
+	 * @param e The key down event.
+	 */
+	private void dispatch(Event e) {
+		Binding first = bindings.get(pack(e.stateMask, e.keyCode));
+		if (first == null) {
+			return;
+		}
+
+		Shell shell = e.widget instanceof Control ? ((Control) e.widget).getShell() : display.getActiveShell();
+		Binding global = null;
+		for (Binding binding = first; binding != null; binding = binding.next) {
+			if (binding.shell == null) {
+				global = binding;
+			} else if (binding.shell == shell) {
+				e.doit = false;
+				binding.handler.run();
+				return;
+			}
+		}
+		if (global != null) {
+			e.doit = false;
+			global.handler.run();
+		}
+	}
+
+	/**
+	 * Removes all accelerators scoped to a shell.
+	 *
+	 * @param shell The disposed shell.
+	 */
+	private void unregisterAll(Shell shell) {
+		int[] keys = Arrays.copyOf(bindings.keys, bindings.keys.length);
+		Object[] values = Arrays.copyOf(bindings.values, bindings.values.length);
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null) {
+				Binding first = remove((Binding) values[i], shell);
+				if (first != null) {
+					bindings.put(keys[i], first);
+				} else {
+					bindings.remove(keys[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the binding of a shell from a chain of bindings.
+	 *
+	 * @param first The first binding of the chain, or null.
+	 * @param shell The shell of the binding to remove, or null for the global
+	 *              binding.
+	 * @return The first binding of the remaining chain, or null if it is empty.
+	 */
+	private static Binding remove(Binding first, Shell shell) {
+		if (first == null) {
+			return null;
+		}
+		if (first.shell == shell) {
+			return first.next;
+		}
+		for (Binding binding = first; binding.next != null; binding = binding.next) {
+			if (binding.next.shell == shell) {
+				binding.next = binding.next.next;
+				break;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Packs a key code and the modifier keys of a state mask into one int. Key
+	 * codes of characters use the lower 16 bits and key codes of special keys
+	 * additionally SWT.KEYCODE_BIT, neither of which overlaps the modifier bits.
+	 *
+	 * @param stateMask The state mask.
+	 * @param keyCode   The key code.
+	 * @return The packed key.
+	 */
+	private static int pack(int stateMask, int keyCode) {
+		if ((keyCode & SWT.KEYCODE_BIT) == 0) {
+			keyCode = Character.toLowerCase((char) keyCode);
+		}
+		return keyCode | (stateMask & SWT.MODIFIER_MASK);
+	}
+
+	/**
+	 * A handler bound to a key, chained with the other handlers of the key.
+	 */
+	private static final class Binding {
+		private final Shell shell;
+		private final Runnable handler;
+		private Binding next;
+
+		/**
+		 * Constructs a binding.
+		 *
+		 * @param shell   The shell of the binding, or null for a global binding.
+		 * @param handler The handler of the binding.
+		 * @param next    The next binding of the same key, or null.
+		 */
+		private Binding(Shell shell, Runnable handler, Binding next) {
+			this.shell = shell;
+			this.handler = handler;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * An open-addressing hash table from packed keys to binding chains, which
+	 * does not box keys on lookup. Packed keys are never 0, which marks empty
+	 * slots.
+	 */
+	private static final class BindingTable {
+		private int[] keys = new int[16];
+		private Object[] values = new Object[16];
+		private int size;
+
+		/**
+		 * Retrieves the binding chain of a key.
+		 *
+		 * @param key The packed key.
+		 * @return The first binding of the key, or null.
+		 */
+		private Binding get(int key) {
+			int mask = keys.length - 1;
+			for (int i = mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return (Binding) values[i];
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Stores the binding chain of a key.
+		 *
+		 * @param key   The packed key.
+		 * @param first The first binding of the key.
+		 */
+		private void put(int key, Binding first) {
+			int mask = keys.length - 1;
+			int i = mix(key) & mask;
+			while (keys[i] != 0 && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			if (keys[i] == 0) {
+				keys[i] = key;
+				if (++size * 2 > keys.length) {
+					values[i] = first;
+					resize();
+					return;
+				}
+			}
+			values[i] = first;
+		}
+
+		/**
+		 * Removes a key, shifting following entries back into place.
+		 *
+		 * @param key The packed key.
+		 */
+		private void remove(int key) {
+			int mask = keys.length - 1;
+			int i = mix(key) & mask;
+			while (keys[i] != key) {
+				if (keys[i] == 0) {
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+
+			size--;
+			int gap = i;
+			for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+				int home = mix(keys[j]) & mask;
+				// Move the entry into the gap if its home slot does not lie between them
+				if (((j - home) & mask) >= ((j - gap) & mask)) {
+					keys[gap] = keys[j];
+					values[gap] = values[j];
+					gap = j;
+				}
+			}
+			keys[gap] = 0;
+			values[gap] = null;
+		}
+
+		/**
+		 * Doubles the capacity of the table.
+		 */
+		private void resize() {
+			int[] oldKeys = keys;
+			Object[] oldValues = values;
+			keys = new int[oldKeys.length * 2];
+			values = new Object[oldValues.length * 2];
+			size = 0;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0) {
+					put(oldKeys[i], (Binding) oldValues[i]);
+				}
+			}
+		}
+
+		/**
+		 * Spreads the bits of a key over the table.
+		 *
+		 * @param key The packed key.
+		 * @return The mixed hash.
+		 */
+		private static int mix(int key) {
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.swtextensions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * An immutable, validated description of the buttons of a dialog's button bar.
+ * The platform-specific button order is computed once, so a description can be
+ * shared as a constant across dialog instances.
+ */
+public final class ButtonBarSpec {
+	private final List<ButtonSpec> buttons;
+	private final List<ButtonSpec> orderedButtons;
+
+	/**
+	 * Constructs a button bar description.
+	 *
+	 * @param buttons The buttons in their standard order.
+	 */
+	public ButtonBarSpec(ButtonSpec... buttons) {
+		ButtonSpec[] copy = buttons.clone();
+		for (ButtonSpec button : copy) {
+			if (button == null) {
+				throw new IllegalArgumentException();
+			}
+		}
+		this.buttons = Collections.unmodifiableList(Arrays.asList(copy));
+
+		if (SWT.getPlatform().equals("cocoa")) {
+			ButtonSpec[] reversed = new ButtonSpec[copy.length];
+			for (int i = 0; i < copy.length; i++) {
+				reversed[i] = copy[copy.length - 1 - i];
+			}
+			this.orderedButtons = Collections.unmodifiableList(Arrays.asList(reversed));
+		} else {
+			this.orderedButtons = this.buttons;
+		}
+	}
+
+	/**
+	 * Creates a button bar description from an array of button information, each
+	 * consisting of an Integer ID, a String label and a Boolean default flag.
+	 *
+	 * @param buttonObjects An array of information like types and labels
+	 *                      representing the buttons to be displayed.
+	 * @return The button bar description.
+	 * @throws IllegalArgumentException If the information is malformed.
+	 */
+	public static ButtonBarSpec fromObjects(Object[][] buttonObjects) {
+		ButtonSpec[] buttons = new ButtonSpec[buttonObjects.length];
+		for (int i = 0; i < buttonObjects.length; i++) {
+			if (buttonObjects[i].length != 3 || !(buttonObjects[i][0] instanceof Integer)
+					|| !(buttonObjects[i][1] instanceof String) || !(buttonObjects[i][2] instanceof Boolean)) {
+				throw new IllegalArgumentException();
+			}
+			buttons[i] = new ButtonSpec((Integer) buttonObjects[i][0], (String) buttonObjects[i][1],
+					(Boolean) buttonObjects[i][2]);
+		}
+		return new ButtonBarSpec(buttons);
+	}
+
+	/**
+	 * Returns the buttons in their standard order.
+	 *
+	 * @return An unmodifiable list of the buttons.
+	 */
+	public List<ButtonSpec> getButtons() {
+		return buttons;
+	}
+
+	/**
+	 * Returns the buttons in the order of the current platform, which is
+	 * reversed on Cocoa.
+	 *
+	 * @return An unmodifiable list of the buttons.
+	 */
+	public List<ButtonSpec> getOrderedButtons() {
+		return orderedButtons;
+	}
+
+	/**
+	 * Converts the description to an array of button information.
+	 *
+	 * @return An array of Integer IDs, String labels and Boolean default flags.
+	 */
+	public Object[][] toObjects() {
+		Object[][] buttonObjects = new Object[buttons.size()][];
+		for (int i = 0; i < buttonObjects.length; i++) {
+			ButtonSpec button = buttons.get(i);
+			buttonObjects[i] = new Object[] { button.getId(), button.getLabel(), button.isDefaultButton() };
+		}
+		return buttonObjects;
+	}
+}
@@ -0,0 +1,55 @@
+package org.swtextensions;
+
+/**
+ * An immutable description of a dialog button.
+ */
+public final class ButtonSpec {
+	private final int id;
+	private final String label;
+	private final boolean defaultButton;
+
+	/**
+	 * Constructs a button description.
+	 *
+	 * @param id            The ID of the button.
+	 * @param label         The label of the button.
+	 * @param defaultButton True if the button is the default button, false
+	 *                      otherwise.
+	 */
+	public ButtonSpec(int id, String label, boolean defaultButton) {
+		if (label == null) {
+			throw new IllegalArgumentException();
+		}
+
+		this.id = id;
+		this.label = label;
+		this.defaultButton = defaultButton;
+	}
+
+	/**
+	 * Returns the ID of the button.
+	 *
+	 * @return The button ID.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the label of the button.
+	 *
+	 * @return The button label.
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Returns whether the button is the default button.
+	 *
+	 * @return True if the button is the default button, false otherwise.
+	 */
+	public boolean isDefaultButton() {
+		return defaultButton;
+	}
+}
@@ -2,13 +2,8 @@ package org.swtextensions;
 
 import org.eclipse.jface.action.IAction;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.events.SelectionAdapter;
-import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.widgets.Display;
-import org.eclipse.swt.widgets.Event;
-import org.eclipse.swt.widgets.Listener;
-import org.eclipse.swt.widgets.Menu;
-import org.eclipse.swt.widgets.MenuItem;
+import org.eclipse.swt.widgets.Shell;
 
 /**
  * Enhances the Cocoa UI by hooking application menu actions.
@@ -19,7 +14,8 @@ public final class CocoaUIEnhancer {
 	}
 
 	/**
-	 * Hooks the application menu to the provided actions for about, preferences, and exit.
+	 * Hooks the application menu to the provided actions for about, preferences, and exit,
+	 * and binds Command-W (Ctrl-W outside of Cocoa) to closing the active shell.
 	 * 
 	 * @param aboutAction The action to run when the about menu item is selected.
 	 * @param prefsAction The action to run when the preferences menu item is selected.
@@ -27,51 +23,23 @@ public final class CocoaUIEnhancer {
 	 */
 	public static void hookApplicationMenu(IAction aboutAction, IAction prefsAction, IAction exitAction) {
 		Display display = Display.getCurrent();
+		AcceleratorRegistry registry = AcceleratorRegistry.get(display);
 
-		Menu systemMenu = display.getSystemMenu();
-		for (MenuItem systemItem : systemMenu.getItems()) {
-			switch (systemItem.getID()) {
-			case SWT.ID_ABOUT:
-				if (aboutAction != null) {
-					systemItem.addSelectionListener(new SelectionAdapter() {
-						@Override
-						public void widgetSelected(SelectionEvent e) {
-							aboutAction.run();
-						}
-					});
-				}
-				break;
-			case SWT.ID_PREFERENCES:
-				if (prefsAction != null) {
-					systemItem.addSelectionListener(new SelectionAdapter() {
-						@Override
-						public void widgetSelected(SelectionEvent e) {
-							prefsAction.run();
-						}
-					});
-				}
-				break;
-			case SWT.ID_QUIT:
-				if (exitAction != null) {
-					systemItem.addSelectionListener(new SelectionAdapter() {
-						@Override
-						public void widgetSelected(SelectionEvent e) {
-							exitAction.run();
-						}
-					});
-				}
-				break;
-			}
+		if (aboutAction != null) {
+			registry.registerSystemMenuItem(SWT.ID_ABOUT, aboutAction::run);
+		}
+		if (prefsAction != null) {
+			registry.registerSystemMenuItem(SWT.ID_PREFERENCES, prefsAction::run);
+		}
+		if (exitAction != null) {
+			registry.registerSystemMenuItem(SWT.ID_QUIT, exitAction::run);
 		}
 
-		display.addFilter(SWT.KeyDown, new Listener() {
-			@Override
-			public void handleEvent(Event e) {
-				if ((e.stateMask & SWT.COMMAND) == SWT.COMMAND && e.keyCode == 'w') {
-					e.doit = false;
-					display.getActiveShell().close();
-				}
+		registry.register(SWT.COMMAND, 'w', () -> {
+			Shell activeShell = display.getActiveShell();
+			if (activeShell != null) {
+				activeShell.close();
 			}
 		});
 	}
-}
\ No newline at end of file
+}
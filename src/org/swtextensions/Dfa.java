@@ -0,0 +1,818 @@
+package org.swtextensions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A deterministic finite automaton compiled from an input mask or a regular
+ * expression, shared by all validators of the same mask or expression.
+ * <p>
+ * The characters are partitioned into classes that no part of the expression
+ * distinguishes, so the transition table has one column per class. A state is
+ * live if an accepting state can still be reached from it, i.e. if the text
+ * consumed so far is a prefix of an accepted text.
+ * <p>
+ * Supported regular expression syntax: literals, '.', character classes with
+ * ranges and negation, the escapes \d, \D, \w, \W, \s and \S, groups,
+ * alternation, the quantifiers *, +, ? and {m,n}, and ^ and $ at the ends of
+ * the expression. The whole text must match.
+ */
+final class Dfa {
+	static final int DEAD = -1;
+
+	private static final int MAX_STATES = 4096;
+	private static final int MAX_REPEAT = 1000;
+	private static final int[] ANY = { 0, Character.MAX_VALUE };
+	private static final int[] DIGIT = { '0', '9' };
+	private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+	private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+	private static final int[] LETTER = { 'A', 'Z', 'a', 'z' };
+	private static final int[] UPPER = { 'A', 'Z' };
+	private static final int[] LOWER = { 'a', 'z' };
+	private static final int[] ALNUM = { '0', '9', 'A', 'Z', 'a', 'z' };
+	private static final int[] HEX = { '0', '9', 'A', 'F', 'a', 'f' };
+
+	private static final Map<String, Dfa> cache = new ConcurrentHashMap<>();
+
+	private final int[] asciiClasses = new int[128];
+	private final int[] bounds;
+	private final int classCount;
+	private final int[] transitions;
+	private final boolean[] accepting;
+	private final boolean[] live;
+
+	/**
+	 * Constructs an automaton from its tables and computes the live states.
+	 *
+	 * @param bounds      The first character of each character class.
+	 * @param transitions The transitions, indexed by state times class count
+	 *                    plus class.
+	 * @param accepting   The accepting states.
+	 */
+	private Dfa(int[] bounds, int[] transitions, boolean[] accepting) {
+		this.bounds = bounds;
+		this.classCount = bounds.length;
+		this.transitions = transitions;
+		this.accepting = accepting;
+		for (int c = 0; c < asciiClasses.length; c++) {
+			asciiClasses[c] = findClass(c);
+		}
+
+		// A state is live if it reaches an accepting state, so walk the
+		// transitions backwards from the accepting states
+		int stateCount = accepting.length;
+		List<List<Integer>> predecessors = new ArrayList<>(stateCount);
+		for (int state = 0; state < stateCount; state++) {
+			predecessors.add(new ArrayList<>());
+		}
+		for (int index = 0; index < transitions.length; index++) {
+			if (transitions[index] != DEAD) {
+				predecessors.get(transitions[index]).add(index / classCount);
+			}
+		}
+		live = accepting.clone();
+		Deque<Integer> pending = new ArrayDeque<>();
+		for (int state = 0; state < stateCount; state++) {
+			if (live[state]) {
+				pending.add(state);
+			}
+		}
+		while (!pending.isEmpty()) {
+			for (int predecessor : predecessors.get(pending.poll())) {
+				if (!live[predecessor]) {
+					live[predecessor] = true;
+					pending.add(predecessor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the automaton of an input mask, compiling it on first use.
+	 *
+	 * @param mask The input mask.
+	 * @return The automaton.
+	 * @see MaskValidator#ofMask(String)
+	 */
+	static Dfa forMask(String mask) {
+		return cache.computeIfAbsent("mask:" + mask, key -> compile(parseMask(mask)));
+	}
+
+	/**
+	 * Retrieves the automaton of a regular expression, compiling it on first use.
+	 *
+	 * @param regex The regular expression.
+	 * @return The automaton.
+	 */
+	static Dfa forPattern(String regex) {
+		return cache.computeIfAbsent("regex:" + regex, key -> compile(new Parser(regex).parse()));
+	}
+
+	/**
+	 * Returns the state before any character has been consumed.
+	 *
+	 * @return The start state.
+	 */
+	int start() {
+		return 0;
+	}
+
+	/**
+	 * Advances a state by one character.
+	 *
+	 * @param state The current state.
+	 * @param c     The character.
+	 * @return The next state, or DEAD if no accepted text continues this way.
+	 */
+	int next(int state, char c) {
+		int cls = c < 128 ? asciiClasses[c] : findClass(c);
+		return transitions[state * classCount + cls];
+	}
+
+	/**
+	 * Checks whether the text consumed so far is accepted.
+	 *
+	 * @param state The state, or DEAD.
+	 * @return True if the state is accepting, false otherwise.
+	 */
+	boolean isAccepting(int state) {
+		return state != DEAD && accepting[state];
+	}
+
+	/**
+	 * Checks whether the text consumed so far can still be completed to an
+	 * accepted text.
+	 *
+	 * @param state The state, or DEAD.
+	 * @return True if the state is live, false otherwise.
+	 */
+	boolean isLive(int state) {
+		return state != DEAD && live[state];
+	}
+
+	/**
+	 * Finds the character class of a character.
+	 *
+	 * @param c The character.
+	 * @return The index of the class.
+	 */
+	private int findClass(int c) {
+		int cls = Arrays.binarySearch(bounds, c);
+		return cls >= 0 ? cls : -cls - 2;
+	}
+
+	/**
+	 * Translates an input mask into a syntax tree. '#' matches a digit, 'U' an
+	 * uppercase letter, 'L' a lowercase letter, '?' a letter, 'A' a letter or
+	 * digit, 'H' a hexadecimal digit and '*' any character. A quote escapes the
+	 * next character; all other characters match themselves.
+	 *
+	 * @param mask The input mask.
+	 * @return The syntax tree.
+	 */
+	private static Node parseMask(String mask) {
+		List<Node> nodes = new ArrayList<>(mask.length());
+		for (int i = 0; i < mask.length(); i++) {
+			char c = mask.charAt(i);
+			switch (c) {
+			case '#':
+				nodes.add(Node.chars(DIGIT));
+				break;
+			case 'U':
+				nodes.add(Node.chars(UPPER));
+				break;
+			case 'L':
+				nodes.add(Node.chars(LOWER));
+				break;
+			case '?':
+				nodes.add(Node.chars(LETTER));
+				break;
+			case 'A':
+				nodes.add(Node.chars(ALNUM));
+				break;
+			case 'H':
+				nodes.add(Node.chars(HEX));
+				break;
+			case '*':
+				nodes.add(Node.chars(ANY));
+				break;
+			case '\'':
+				if (++i == mask.length()) {
+					throw new IllegalArgumentException("Dangling escape in mask: " + mask);
+				}
+				nodes.add(Node.chars(new int[] { mask.charAt(i), mask.charAt(i) }));
+				break;
+			default:
+				nodes.add(Node.chars(new int[] { c, c }));
+				break;
+			}
+		}
+		return Node.concat(nodes);
+	}
+
+	/**
+	 * Compiles a syntax tree into an automaton, via a nondeterministic automaton
+	 * and the subset construction.
+	 *
+	 * @param root The syntax tree.
+	 * @return The automaton.
+	 * @throws IllegalArgumentException If the automaton would be too large.
+	 */
+	private static Dfa compile(Node root) {
+		Nfa nfa = new Nfa();
+		int[] fragment = nfa.build(root);
+
+		// Partition the characters into classes at the bounds of all ranges
+		TreeSet<Integer> boundSet = new TreeSet<>();
+		boundSet.add(0);
+		for (int[] ranges : nfa.ranges) {
+			if (ranges != null) {
+				for (int i = 0; i < ranges.length; i += 2) {
+					boundSet.add(ranges[i]);
+					if (ranges[i + 1] < Character.MAX_VALUE) {
+						boundSet.add(ranges[i + 1] + 1);
+					}
+				}
+			}
+		}
+		int[] bounds = boundSet.stream().mapToInt(Integer::intValue).toArray();
+		int classCount = bounds.length;
+
+		Map<BitSet, Integer> stateIds = new HashMap<>();
+		List<BitSet> states = new ArrayList<>();
+		Deque<Integer> pending = new ArrayDeque<>();
+		int[] transitions = new int[16 * classCount];
+		BitSet start = nfa.closure(fragment[0]);
+		stateIds.put(start, 0);
+		states.add(start);
+		pending.add(0);
+
+		while (!pending.isEmpty()) {
+			int id = pending.poll();
+			BitSet set = states.get(id);
+			for (int cls = 0; cls < classCount; cls++) {
+				BitSet target = new BitSet();
+				for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+					if (nfa.ranges.get(s) != null && contains(nfa.ranges.get(s), bounds[cls])) {
+						target.or(nfa.closure(nfa.targets[s]));
+					}
+				}
+
+				int targetId = DEAD;
+				if (!target.isEmpty()) {
+					Integer existing = stateIds.get(target);
+					if (existing == null) {
+						if (states.size() == MAX_STATES) {
+							throw new IllegalArgumentException("Pattern is too complex");
+						}
+						existing = states.size();
+						stateIds.put(target, existing);
+						states.add(target);
+						pending.add(existing);
+					}
+					targetId = existing;
+				}
+				int index = id * classCount + cls;
+				if (index >= transitions.length) {
+					transitions = Arrays.copyOf(transitions, Math.max(index + 1, transitions.length * 2));
+				}
+				transitions[index] = targetId;
+			}
+		}
+
+		boolean[] accepting = new boolean[states.size()];
+		for (int id = 0; id < accepting.length; id++) {
+			accepting[id] = states.get(id).get(fragment[1]);
+		}
+		return new Dfa(bounds, Arrays.copyOf(transitions, states.size() * classCount), accepting);
+	}
+
+	/**
+	 * Checks whether a set of ranges contains a character.
+	 *
+	 * @param ranges The sorted, disjoint ranges as pairs of inclusive bounds.
+	 * @param c      The character.
+	 * @return True if a range contains the character, false otherwise.
+	 */
+	private static boolean contains(int[] ranges, int c) {
+		for (int i = 0; i < ranges.length && ranges[i] <= c; i += 2) {
+			if (c <= ranges[i + 1]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Normalizes ranges into sorted, disjoint ranges.
+	 *
+	 * @param ranges The ranges as pairs of inclusive bounds.
+	 * @param negate True to complement the ranges.
+	 * @return The normalized ranges.
+	 */
+	private static int[] normalize(int[] ranges, boolean negate) {
+		int count = ranges.length / 2;
+		int[][] pairs = new int[count][];
+		for (int i = 0; i < count; i++) {
+			pairs[i] = new int[] { ranges[2 * i], ranges[2 * i + 1] };
+		}
+		Arrays.sort(pairs, (a, b) -> Integer.compare(a[0], b[0]));
+
+		int[] merged = new int[ranges.length];
+		int size = 0;
+		for (int[] pair : pairs) {
+			if (size > 0 && pair[0] <= merged[size - 1] + 1) {
+				merged[size - 1] = Math.max(merged[size - 1], pair[1]);
+			} else {
+				merged[size++] = pair[0];
+				merged[size++] = pair[1];
+			}
+		}
+		if (!negate) {
+			return Arrays.copyOf(merged, size);
+		}
+
+		int[] complement = new int[size + 2];
+		int length = 0;
+		int next = 0;
+		for (int i = 0; i < size; i += 2) {
+			if (merged[i] > next) {
+				complement[length++] = next;
+				complement[length++] = merged[i] - 1;
+			}
+			next = merged[i + 1] + 1;
+		}
+		if (next <= Character.MAX_VALUE) {
+			complement[length++] = next;
+			complement[length++] = Character.MAX_VALUE;
+		}
+		return Arrays.copyOf(complement, length);
+	}
+
+	/**
+	 * A node of the syntax tree of a mask or regular expression.
+	 */
+	private static final class Node {
+		private static final int CHARS = 0;
+		private static final int CONCAT = 1;
+		private static final int ALTERNATION = 2;
+		private static final int REPEAT = 3;
+
+		private int kind;
+		private int[] ranges;
+		private List<Node> children;
+		private int min;
+		private int max;
+
+		/**
+		 * Creates a node matching one character of a set.
+		 *
+		 * @param ranges The ranges of the set as pairs of inclusive bounds.
+		 * @return The node.
+		 */
+		private static Node chars(int[] ranges) {
+			Node node = new Node();
+			node.kind = CHARS;
+			node.ranges = normalize(ranges, false);
+			return node;
+		}
+
+		/**
+		 * Creates a node matching its children in sequence.
+		 *
+		 * @param children The children.
+		 * @return The node.
+		 */
+		private static Node concat(List<Node> children) {
+			Node node = new Node();
+			node.kind = CONCAT;
+			node.children = children;
+			return node;
+		}
+
+		/**
+		 * Creates a node matching any of its children.
+		 *
+		 * @param children The children.
+		 * @return The node.
+		 */
+		private static Node alternation(List<Node> children) {
+			Node node = new Node();
+			node.kind = ALTERNATION;
+			node.children = children;
+			return node;
+		}
+
+		/**
+		 * Creates a node matching its child repeatedly.
+		 *
+		 * @param child The child.
+		 * @param min   The minimum number of repetitions.
+		 * @param max   The maximum number of repetitions, or -1 for no limit.
+		 * @return The node.
+		 */
+		private static Node repeat(Node child, int min, int max) {
+			Node node = new Node();
+			node.kind = REPEAT;
+			node.children = List.of(child);
+			node.min = min;
+			node.max = max;
+			return node;
+		}
+	}
+
+	/**
+	 * A recursive descent parser for the supported regular expression syntax.
+	 */
+	private static final class Parser {
+		private final String regex;
+		private int pos;
+
+		/**
+		 * Constructs a parser.
+		 *
+		 * @param regex The regular expression.
+		 */
+		private Parser(String regex) {
+			this.regex = regex;
+		}
+
+		/**
+		 * Parses the whole expression.
+		 *
+		 * @return The syntax tree.
+		 */
+		private Node parse() {
+			if (peek('^')) {
+				pos++;
+			}
+			Node node = parseAlternation();
+			if (peek('$')) {
+				pos++;
+			}
+			if (pos < regex.length()) {
+				throw error("Unexpected character");
+			}
+			return node;
+		}
+
+		/**
+		 * Parses alternatives separated by '|'.
+		 *
+		 * @return The syntax tree of the alternatives.
+		 */
+		private Node parseAlternation() {
+			List<Node> alternatives = new ArrayList<>();
+			alternatives.add(parseConcat());
+			while (peek('|')) {
+				pos++;
+				alternatives.add(parseConcat());
+			}
+			return alternatives.size() == 1 ? alternatives.get(0) : Node.alternation(alternatives);
+		}
+
+		/**
+		 * Parses a sequence of repeated atoms.
+		 *
+		 * @return The syntax tree of the sequence.
+		 */
+		private Node parseConcat() {
+			List<Node> nodes = new ArrayList<>();
+			while (pos < regex.length() && !peek('|') && !peek(')') && !(peek('$') && pos == regex.length() - 1)) {
+				nodes.add(parseRepeat());
+			}
+			return Node.concat(nodes);
+		}
+
+		/**
+		 * Parses an atom followed by any number of quantifiers.
+		 *
+		 * @return The syntax tree of the repeated atom.
+		 */
+		private Node parseRepeat() {
+			Node node = parseAtom();
+			while (pos < regex.length()) {
+				char c = regex.charAt(pos);
+				if (c == '*') {
+					node = Node.repeat(node, 0, -1);
+				} else if (c == '+') {
+					node = Node.repeat(node, 1, -1);
+				} else if (c == '?') {
+					node = Node.repeat(node, 0, 1);
+				} else if (c == '{') {
+					int end = regex.indexOf('}', pos);
+					if (end < 0) {
+						throw error("Unclosed repetition");
+					}
+					String[] bounds = regex.substring(pos + 1, end).split(",", -1);
+					try {
+						int min = Integer.parseInt(bounds[0].trim());
+						int max = bounds.length == 1 ? min
+								: bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+						if (bounds.length > 2 || min < 0 || max > MAX_REPEAT || min > MAX_REPEAT
+								|| max >= 0 && max < min) {
+							throw error("Invalid repetition");
+						}
+						node = Node.repeat(node, min, max);
+					} catch (NumberFormatException ex) {
+						throw error("Invalid repetition");
+					}
+					pos = end;
+				} else {
+					break;
+				}
+				pos++;
+			}
+			return node;
+		}
+
+		/**
+		 * Parses a group, a character class, an escape or a literal.
+		 *
+		 * @return The syntax tree of the atom.
+		 */
+		private Node parseAtom() {
+			char c = regex.charAt(pos++);
+			switch (c) {
+			case '(':
+				if (regex.startsWith("?:", pos)) {
+					pos += 2;
+				}
+				Node node = parseAlternation();
+				if (!peek(')')) {
+					throw error("Unclosed group");
+				}
+				pos++;
+				return node;
+			case '[':
+				return Node.chars(parseClass());
+			case '.':
+				return Node.chars(ANY);
+			case '\\':
+				return Node.chars(parseEscape());
+			case '*':
+			case '+':
+			case '?':
+			case '{':
+			case ')':
+				throw error("Unexpected character");
+			default:
+				return Node.chars(new int[] { c, c });
+			}
+		}
+
+		/**
+		 * Parses the contents of a character class after the opening bracket.
+		 *
+		 * @return The normalized ranges of the class.
+		 */
+		private int[] parseClass() {
+			boolean negate = peek('^');
+			if (negate) {
+				pos++;
+			}
+			List<Integer> ranges = new ArrayList<>();
+			boolean first = true;
+			while (pos < regex.length() && (first || !peek(']'))) {
+				first = false;
+				char c = regex.charAt(pos++);
+				int[] set;
+				if (c == '\\') {
+					set = parseEscape();
+				} else if (c == '&' && peek('&')) {
+					throw error("Unsupported class intersection");
+				} else if (c == '[') {
+					throw error("Unsupported nested class");
+				} else {
+					set = new int[] { c, c };
+				}
+				if (set[0] == set[1] && set.length == 2 && peek('-') && pos + 1 < regex.length()
+						&& regex.charAt(pos + 1) != ']') {
+					pos++;
+					char to = regex.charAt(pos++);
+					if (to == '\\') {
+						int[] escaped = parseEscape();
+						to = (char) escaped[0];
+					}
+					if (to < set[0]) {
+						throw error("Invalid range");
+					}
+					set = new int[] { set[0], to };
+				}
+				for (int bound : set) {
+					ranges.add(bound);
+				}
+			}
+			if (!peek(']')) {
+				throw error("Unclosed character class");
+			}
+			pos++;
+			return normalize(ranges.stream().mapToInt(Integer::intValue).toArray(), negate);
+		}
+
+		/**
+		 * Parses an escape sequence after the backslash.
+		 *
+		 * @return The ranges of the escaped characters.
+		 */
+		private int[] parseEscape() {
+			if (pos == regex.length()) {
+				throw error("Dangling escape");
+			}
+			char c = regex.charAt(pos++);
+			switch (c) {
+			case 'd':
+				return DIGIT;
+			case 'D':
+				return normalize(DIGIT, true);
+			case 'w':
+				return WORD;
+			case 'W':
+				return normalize(WORD, true);
+			case 's':
+				return SPACE;
+			case 'S':
+				return normalize(SPACE, true);
+			case 't':
+				return new int[] { '\t', '\t' };
+			case 'n':
+				return new int[] { '\n', '\n' };
+			case 'r':
+				return new int[] { '\r', '\r' };
+			default:
+				if (Character.isLetterOrDigit(c)) {
+					throw error("Unsupported escape");
+				}
+				return new int[] { c, c };
+			}
+		}
+
+		/**
+		 * Checks whether the next character is the specified character.
+		 *
+		 * @param c The character.
+		 * @return True if the next character matches, false otherwise.
+		 */
+		private boolean peek(char c) {
+			return pos < regex.length() && regex.charAt(pos) == c;
+		}
+
+		/**
+		 * Creates an exception describing a syntax error at the current position.
+		 *
+		 * @param message The description of the error.
+		 * @return The exception.
+		 */
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at index " + pos + " in pattern: " + regex);
+		}
+	}
+
+	/**
+	 * A nondeterministic automaton in which every state has either one
+	 * character transition or any number of empty transitions.
+	 */
+	private static final class Nfa {
+		private final List<int[]> ranges = new ArrayList<>();
+		private final List<int[]> epsilons = new ArrayList<>();
+		private int[] targets = new int[16];
+		private final Map<Integer, BitSet> closures = new HashMap<>();
+
+		/**
+		 * Builds the fragment of a syntax tree.
+		 *
+		 * @param node The syntax tree.
+		 * @return The start and end state of the fragment.
+		 */
+		private int[] build(Node node) {
+			switch (node.kind) {
+			case Node.CHARS: {
+				int start = newState();
+				int end = newState();
+				ranges.set(start, node.ranges);
+				targets[start] = end;
+				return new int[] { start, end };
+			}
+			case Node.CONCAT: {
+				int start = newState();
+				int end = start;
+				for (Node child : node.children) {
+					int[] fragment = build(child);
+					addEpsilon(end, fragment[0]);
+					end = fragment[1];
+				}
+				return new int[] { start, end };
+			}
+			case Node.ALTERNATION: {
+				int start = newState();
+				int end = newState();
+				for (Node child : node.children) {
+					int[] fragment = build(child);
+					addEpsilon(start, fragment[0]);
+					addEpsilon(fragment[1], end);
+				}
+				return new int[] { start, end };
+			}
+			default: {
+				Node child = node.children.get(0);
+				int start = newState();
+				int end = start;
+				for (int i = 0; i < node.min; i++) {
+					int[] fragment = build(child);
+					addEpsilon(end, fragment[0]);
+					end = fragment[1];
+				}
+				if (node.max < 0) {
+					int[] fragment = build(child);
+					addEpsilon(end, fragment[0]);
+					addEpsilon(fragment[1], fragment[0]);
+					int exit = newState();
+					addEpsilon(end, exit);
+					addEpsilon(fragment[1], exit);
+					end = exit;
+				} else if (node.max > node.min) {
+					int exit = newState();
+					for (int i = node.min; i < node.max; i++) {
+						int[] fragment = build(child);
+						addEpsilon(end, fragment[0]);
+						addEpsilon(end, exit);
+						end = fragment[1];
+					}
+					addEpsilon(end, exit);
+					end = exit;
+				}
+				return new int[] { start, end };
+			}
+			}
+		}
+
+		/**
+		 * Computes the states reachable from a state through empty transitions.
+		 *
+		 * @param state The state.
+		 * @return The set of reachable states, including the state itself.
+		 */
+		private BitSet closure(int state) {
+			BitSet closure = closures.get(state);
+			if (closure == null) {
+				closure = new BitSet();
+				Deque<Integer> stack = new ArrayDeque<>();
+				stack.push(state);
+				closure.set(state);
+				while (!stack.isEmpty()) {
+					int[] next = epsilons.get(stack.pop());
+					if (next != null) {
+						for (int target : next) {
+							if (!closure.get(target)) {
+								closure.set(target);
+								stack.push(target);
+							}
+						}
+					}
+				}
+				closures.put(state, closure);
+			}
+			return closure;
+		}
+
+		/**
+		 * Adds a state without transitions.
+		 *
+		 * @return The new state.
+		 */
+		private int newState() {
+			int state = ranges.size();
+			ranges.add(null);
+			epsilons.add(null);
+			if (state == targets.length) {
+				targets = Arrays.copyOf(targets, state * 2);
+			}
+			return state;
+		}
+
+		/**
+		 * Adds an empty transition.
+		 *
+		 * @param from The source state.
+		 * @param to   The target state.
+		 */
+		private void addEpsilon(int from, int to) {
+			int[] next = epsilons.get(from);
+			if (next == null) {
+				next = new int[] { to };
+			} else {
+				next = Arrays.copyOf(next, next.length + 1);
+				next[next.length - 1] = to;
+			}
+			epsilons.set(from, next);
+		}
+	}
+}
@@ -1,14 +1,47 @@
 package org.swtextensions;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.FontMetrics;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
 
 /**
  * Utility object for dimension calculations.
+ * <p>
+ * Font metrics, text extents and character widths are cached per device and
+ * font data, so a native GC is only created when a font, string or character is
+ * measured for the first time. Cache entries are dropped when all fonts they
+ * were measured with are disposed, when the display zoom changes and when the
+ * display is disposed.
  */
 public final class Dimension {
+	private static final int MAX_CACHED_EXTENTS = 512;
+
+	private static final Map<Device, Map<List<FontData>, FontEntry>> cache = Collections
+			.synchronizedMap(new WeakHashMap<>());
+	private static final Set<Display> hookedDisplays = Collections.newSetFromMap(new WeakHashMap<>());
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
 	// Private constructor to prevent instantiation of this class.
 	private Dimension() {
 	}
@@ -20,13 +53,282 @@ public final class Dimension {
 	 * @return The average character width and height of the control's font.
 	 */
 	public static Point getTextSize(Control control) {
-		GC gc = new GC(control);
+		Font font = control.getFont();
+		FontEntry entry = getEntry(control.getDisplay(), font);
+		synchronized (entry) {
+			if (entry.textSize != null) {
+				hits.incrementAndGet();
+			} else {
+				misses.incrementAndGet();
+				GC gc = ResourceTracker.track(new GC(control));
+				try {
+					gc.setFont(font);
+					FontMetrics fm = gc.getFontMetrics();
+					entry.textSize = new Point((int) fm.getAverageCharacterWidth(), fm.getHeight());
+				} finally {
+					ResourceTracker.untrack(gc);
+					gc.dispose();
+				}
+			}
+			return new Point(entry.textSize.x, entry.textSize.y);
+		}
+	}
+
+	/**
+	 * Calculates the extents of the given strings in the control's font. All
+	 * strings that are not cached yet are measured with a single GC.
+	 *
+	 * @param control The control whose font is used for the calculation.
+	 * @param strings The strings to measure.
+	 * @return The extents of the strings, in the same order as the strings.
+	 */
+	public static Point[] getTextExtents(Control control, String... strings) {
+		Font font = control.getFont();
+		FontEntry entry = getEntry(control.getDisplay(), font);
+		Point[] extents = new Point[strings.length];
+		GC gc = null;
 		try {
-			gc.setFont(control.getFont());
-			FontMetrics fm = gc.getFontMetrics();
-			return new Point((int) fm.getAverageCharacterWidth(), fm.getHeight());
+			synchronized (entry) {
+				for (int i = 0; i < strings.length; i++) {
+					Point extent = entry.extents.get(strings[i]);
+					if (extent != null) {
+						hits.incrementAndGet();
+					} else {
+						misses.incrementAndGet();
+						if (gc == null) {
+							gc = ResourceTracker.track(new GC(control));
+							gc.setFont(font);
+						}
+						extent = gc.textExtent(strings[i]);
+						entry.extents.put(strings[i], extent);
+					}
+					extents[i] = new Point(extent.x, extent.y);
+				}
+			}
 		} finally {
-			gc.dispose();
+			if (gc != null) {
+				ResourceTracker.untrack(gc);
+				gc.dispose();
+			}
+		}
+		return extents;
+	}
+
+	/**
+	 * Calculates the widths of all prefixes of the given string in the control's
+	 * font. The advance widths of characters are cached per font, so a GC is only
+	 * created for characters that have not been measured before. Kerning is not
+	 * taken into account.
+	 *
+	 * @param control The control whose font is used for the calculation.
+	 * @param text    The string to measure.
+	 * @return An array of length text.length() + 1 whose element i is the width
+	 *         of the first i characters.
+	 */
+	public static int[] getPrefixWidths(Control control, String text) {
+		Font font = control.getFont();
+		FontEntry entry = getEntry(control.getDisplay(), font);
+		int[] widths = new int[text.length() + 1];
+		GC gc = null;
+		try {
+			synchronized (entry) {
+				for (int i = 0; i < text.length(); i++) {
+					char c = text.charAt(i);
+					int advance = entry.getAdvance(c);
+					if (advance < 0) {
+						if (gc == null) {
+							gc = ResourceTracker.track(new GC(control));
+							gc.setFont(font);
+						}
+						advance = gc.getAdvanceWidth(c);
+						entry.setAdvance(c, advance);
+					}
+					widths[i + 1] = widths[i] + advance;
+				}
+			}
+		} finally {
+			if (gc != null) {
+				ResourceTracker.untrack(gc);
+				gc.dispose();
+			}
+		}
+		if (gc != null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		return widths;
+	}
+
+	/**
+	 * Removes all cached metrics and extents.
+	 */
+	public static void clearCache() {
+		cache.clear();
+	}
+
+	/**
+	 * Removes all cached metrics and extents of the specified device.
+	 *
+	 * @param device The device whose cache entries to remove.
+	 */
+	public static void clearCache(Device device) {
+		cache.remove(device);
+	}
+
+	/**
+	 * Returns the number of measurements answered from the cache.
+	 *
+	 * @return The number of cache hits.
+	 */
+	public static long getCacheHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of measurements that required a GC.
+	 *
+	 * @return The number of cache misses.
+	 */
+	public static long getCacheMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Retrieves the cache entry for the given font, creating it if necessary.
+	 *
+	 * @param display The display the font belongs to.
+	 * @param font    The font to look up.
+	 * @return The cache entry of the font.
+	 */
+	private static FontEntry getEntry(Display display, Font font) {
+		Map<List<FontData>, FontEntry> entries;
+		synchronized (cache) {
+			entries = cache.get(display);
+			if (entries == null) {
+				entries = new LinkedHashMap<>();
+				cache.put(display, entries);
+				if (hookedDisplays.add(display)) {
+					hookDisplay(display);
+				}
+			}
+		}
+
+		List<FontData> key = Arrays.asList(font.getFontData());
+		synchronized (entries) {
+			FontEntry entry = entries.get(key);
+			if (entry == null) {
+				purgeDisposed(entries);
+				entry = new FontEntry();
+				entries.put(key, entry);
+			}
+			entry.track(font);
+			return entry;
+		}
+	}
+
+	/**
+	 * Registers the listeners that drop the display's cache entries when the
+	 * zoom changes or the display is disposed. Each display is hooked only once,
+	 * since clearing the cache does not remove the listeners.
+	 *
+	 * @param display The display to hook.
+	 */
+	private static void hookDisplay(Display display) {
+		display.addFilter(SWT.ZoomChanged, new Listener() {
+			@Override
+			public void handleEvent(Event e) {
+				clearCache(display);
+			}
+		});
+		display.disposeExec(() -> clearCache(display));
+	}
+
+	/**
+	 * Removes all entries whose fonts have been disposed.
+	 *
+	 * @param entries The entries of a device.
+	 */
+	private static void purgeDisposed(Map<List<FontData>, FontEntry> entries) {
+		Iterator<FontEntry> it = entries.values().iterator();
+		while (it.hasNext()) {
+			if (it.next().isOrphaned()) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Cached metrics and extents of one font.
+	 */
+	private static final class FontEntry {
+		private final List<WeakReference<Font>> fonts = new ArrayList<>(1);
+		private final Map<String, Point> extents = new LinkedHashMap<String, Point>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Point> eldest) {
+				return size() > MAX_CACHED_EXTENTS;
+			}
+		};
+		private final int[][] advances = new int[256][];
+		private Point textSize;
+
+		/**
+		 * Retrieves the cached advance width of a character.
+		 *
+		 * @param c The character.
+		 * @return The advance width, or -1 if the character has not been measured.
+		 */
+		private int getAdvance(char c) {
+			int[] page = advances[c >>> 8];
+			return page != null ? page[c & 0xFF] - 1 : -1;
+		}
+
+		/**
+		 * Caches the advance width of a character.
+		 *
+		 * @param c       The character.
+		 * @param advance The advance width.
+		 */
+		private void setAdvance(char c, int advance) {
+			int[] page = advances[c >>> 8];
+			if (page == null) {
+				// Widths are stored plus one, so that 0 marks unmeasured characters
+				page = new int[256];
+				advances[c >>> 8] = page;
+			}
+			page[c & 0xFF] = advance + 1;
+		}
+
+		/**
+		 * Remembers a font that uses this entry.
+		 *
+		 * @param font The font to remember.
+		 */
+		private synchronized void track(Font font) {
+			for (WeakReference<Font> ref : fonts) {
+				if (ref.get() == font) {
+					return;
+				}
+			}
+			fonts.add(new WeakReference<>(font));
+		}
+
+		/**
+		 * Checks whether all fonts that use this entry have been disposed.
+		 *
+		 * @return True if no live font uses this entry anymore.
+		 */
+		private synchronized boolean isOrphaned() {
+			Iterator<WeakReference<Font>> it = fonts.iterator();
+			while (it.hasNext()) {
+				Font font = it.next().get();
+				if (font == null || font.isDisposed()) {
+					it.remove();
+				}
+			}
+			return fonts.isEmpty();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,8 +1,28 @@
 package org.swtextensions;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Shell;
 
@@ -10,11 +30,23 @@ import org.eclipse.swt.widgets.Shell;
  * A utility class that provides methods for displaying SWT file dialogs for
  * opening and saving files with additional options for checking file existence
  * and overwriting.
+ * <p>
+ * The asynchronous variants perform the file checks on a background executor,
+ * so that slow file systems do not block the UI thread. In multi-select mode,
+ * all selected files are validated in parallel.
  */
 public class FileChooser {
+	private static final long DEFAULT_CHECK_TIMEOUT = 5000;
+	private static final int MAX_SUMMARY_LINES = 10;
+	private static final int MAX_CHECK_THREADS = 8;
+	private static final ExecutorService CHECK_EXECUTOR = createCheckExecutor();
+
 	private boolean checkExists;
 	private boolean checkOverwrite;
+	private Executor checkExecutor;
+	private long checkTimeout;
 	private String fileName;
+	private long maxFileSize;
 	private String[] filterExtensions;
 	private String[] filterNames;
 	private String message;
@@ -29,7 +61,10 @@ public class FileChooser {
 	public FileChooser(Shell parentShell) {
 		this.checkExists = true;
 		this.checkOverwrite = true;
+		this.checkExecutor = CHECK_EXECUTOR;
+		this.checkTimeout = DEFAULT_CHECK_TIMEOUT;
 		this.fileName = null;
+		this.maxFileSize = Long.MAX_VALUE;
 		this.filterExtensions = new String[] { "*.*" };
 		this.filterNames = new String[] { "All files (*.*)" };
 		this.message = "";
@@ -43,13 +78,7 @@ public class FileChooser {
 	 * @return The selected file name, or null if the dialog was canceled.
 	 */
 	public String openDialog() {
-		FileDialog openFileDialog = new FileDialog(parentShell, SWT.OPEN);
-		if (fileName != null) {
-			openFileDialog.setFileName(fileName);
-		}
-		openFileDialog.setFilterExtensions(filterExtensions);
-		openFileDialog.setFilterNames(filterNames);
-		openFileDialog.setText(text);
+		FileDialog openFileDialog = createDialog(SWT.OPEN);
 
 		boolean completed;
 		do {
@@ -75,13 +104,7 @@ public class FileChooser {
 	 * @return The selected file name, or null if the dialog was canceled.
 	 */
 	public String saveDialog() {
-		FileDialog saveFileDialog = new FileDialog(parentShell, SWT.SAVE);
-		if (fileName != null) {
-			saveFileDialog.setFileName(fileName);
-		}
-		saveFileDialog.setFilterExtensions(filterExtensions);
-		saveFileDialog.setFilterNames(filterNames);
-		saveFileDialog.setText(text);
+		FileDialog saveFileDialog = createDialog(SWT.SAVE);
 
 		boolean completed;
 		do {
@@ -102,6 +125,95 @@ public class FileChooser {
 		return fileName;
 	}
 
+	/**
+	 * Opens a file dialog for selecting multiple files to open. The selected files
+	 * are validated in parallel on the check executor, and a single warning
+	 * summarizing all rejected files is shown on the UI thread. Files whose check
+	 * does not finish in time are rejected. Must be called on the UI thread.
+	 *
+	 * @return A future completed on the UI thread with the valid and rejected
+	 *         files, or null if the dialog was canceled.
+	 */
+	public CompletableFuture<MultiSelection> openMultiDialogAsync() {
+		Display display = Display.getCurrent();
+		FileDialog openFileDialog = createDialog(SWT.OPEN | SWT.MULTI);
+		fileName = openFileDialog.open();
+		if (fileName == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		String filterPath = openFileDialog.getFilterPath();
+		String[] fileNames = openFileDialog.getFileNames();
+		List<CompletableFuture<FileCheck>> checks = new ArrayList<>(fileNames.length);
+		for (int i = 0; i < fileNames.length; i++) {
+			String fullName = filterPath != null ? new File(filterPath, fileNames[i]).getPath() : fileNames[i];
+			fileNames[i] = fullName;
+			checks.add(CompletableFuture.supplyAsync(() -> checkFile(fullName, maxFileSize), checkExecutor)
+					.completeOnTimeout(null, checkTimeout, TimeUnit.MILLISECONDS));
+		}
+
+		CompletableFuture<MultiSelection> result = new CompletableFuture<>();
+		CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, ex) -> {
+			MultiSelection selection = new MultiSelection();
+			for (int i = 0; i < checks.size(); i++) {
+				CompletableFuture<FileCheck> future = checks.get(i);
+				FileCheck check = future.isCompletedExceptionally() ? null : future.getNow(null);
+				if (check == null) {
+					selection.rejectedFiles.put(fileNames[i], "Check timed out");
+				} else if (check.reason != null) {
+					selection.rejectedFiles.put(fileNames[i], check.reason);
+				} else {
+					selection.validFiles.put(fileNames[i], check.size);
+				}
+			}
+
+			try {
+				display.asyncExec(() -> {
+					if (!selection.rejectedFiles.isEmpty()) {
+						MessageDialog.openWarning(summarize(selection, fileNames.length));
+					}
+					result.complete(selection);
+				});
+			} catch (SWTException swtEx) {
+				// The display has been disposed
+				result.cancel(false);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Opens a file dialog for selecting a file to open, checking the existence of
+	 * the selected file on a background executor. The error message is shown on
+	 * the UI thread, after which the dialog is opened again. Must be called on the
+	 * UI thread.
+	 *
+	 * @return A future completed on the UI thread with the selected file name, or
+	 *         null if the dialog was canceled. It completes exceptionally with a
+	 *         TimeoutException if the check does not finish in time.
+	 */
+	public CompletableFuture<String> openDialogAsync() {
+		CompletableFuture<String> result = new CompletableFuture<>();
+		openDialogAsync(createDialog(SWT.OPEN), false, result);
+		return result;
+	}
+
+	/**
+	 * Opens a file dialog for selecting a file to save, checking whether the
+	 * selected file exists on a background executor. The overwrite confirmation
+	 * is shown on the UI thread, and the dialog is opened again if it is declined.
+	 * Must be called on the UI thread.
+	 *
+	 * @return A future completed on the UI thread with the selected file name, or
+	 *         null if the dialog was canceled. It completes exceptionally with a
+	 *         TimeoutException if the check does not finish in time.
+	 */
+	public CompletableFuture<String> saveDialogAsync() {
+		CompletableFuture<String> result = new CompletableFuture<>();
+		openDialogAsync(createDialog(SWT.SAVE), true, result);
+		return result;
+	}
+
 	/**
 	 * Returns whether the file existence check is enabled.
 	 *
@@ -138,6 +250,60 @@ public class FileChooser {
 		this.checkOverwrite = checkOverwrite;
 	}
 
+	/**
+	 * Returns the executor running the file checks of the asynchronous dialogs.
+	 *
+	 * @return The executor.
+	 */
+	public Executor getCheckExecutor() {
+		return checkExecutor;
+	}
+
+	/**
+	 * Sets the executor running the file checks of the asynchronous dialogs.
+	 *
+	 * @param checkExecutor The executor to set.
+	 */
+	public void setCheckExecutor(Executor checkExecutor) {
+		this.checkExecutor = checkExecutor;
+	}
+
+	/**
+	 * Returns the time after which a file check of the asynchronous dialogs fails.
+	 *
+	 * @return The timeout in milliseconds.
+	 */
+	public long getCheckTimeout() {
+		return checkTimeout;
+	}
+
+	/**
+	 * Sets the time after which a file check of the asynchronous dialogs fails.
+	 *
+	 * @param checkTimeout The timeout in milliseconds.
+	 */
+	public void setCheckTimeout(long checkTimeout) {
+		this.checkTimeout = checkTimeout;
+	}
+
+	/**
+	 * Returns the maximum size of files accepted in multi-select mode.
+	 *
+	 * @return The maximum file size in bytes.
+	 */
+	public long getMaxFileSize() {
+		return maxFileSize;
+	}
+
+	/**
+	 * Sets the maximum size of files accepted in multi-select mode.
+	 *
+	 * @param maxFileSize The maximum file size in bytes.
+	 */
+	public void setMaxFileSize(long maxFileSize) {
+		this.maxFileSize = maxFileSize;
+	}
+
 	/**
 	 * Returns the current file name selected in the dialogs.
 	 *
@@ -227,4 +393,208 @@ public class FileChooser {
 	public void v(String text) {
 		this.text = text;
 	}
+
+	/**
+	 * Creates a file dialog with the current settings.
+	 *
+	 * @param style The style of the dialog, either SWT.OPEN or SWT.SAVE.
+	 * @return The file dialog.
+	 */
+	private FileDialog createDialog(int style) {
+		FileDialog fileDialog = new FileDialog(parentShell, style);
+		if (fileName != null) {
+			fileDialog.setFileName(fileName);
+		}
+		fileDialog.setFilterExtensions(filterExtensions);
+		fileDialog.setFilterNames(filterNames);
+		fileDialog.setText(text);
+		return fileDialog;
+	}
+
+	/**
+	 * Opens the file dialog and checks the selected file in the background,
+	 * reopening the dialog until the selection is accepted or canceled.
+	 *
+	 * @param fileDialog The file dialog to open.
+	 * @param save       True for the overwrite check, false for the existence
+	 *                   check.
+	 * @param result     The future to complete with the selected file name.
+	 */
+	private void openDialogAsync(FileDialog fileDialog, boolean save, CompletableFuture<String> result) {
+		Display display = Display.getCurrent();
+		fileName = fileDialog.open();
+		String selectedName = fileName;
+		if (selectedName == null || !(save ? checkOverwrite : checkExists)) {
+			result.complete(selectedName);
+			return;
+		}
+
+		CompletableFuture.supplyAsync(() -> isRegularFile(selectedName), checkExecutor)
+				.orTimeout(checkTimeout, TimeUnit.MILLISECONDS)
+				.whenComplete((isFile, ex) -> {
+					try {
+						display.asyncExec(() -> {
+							if (ex != null) {
+								result.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex);
+							} else if (!save && !isFile) {
+								MessageDialog.openError(String.format(message, selectedName));
+								openDialogAsync(fileDialog, save, result);
+							} else if (save && isFile
+									&& MessageDialog.openConfirm(String.format(message, selectedName)) == SWT.NO) {
+								openDialogAsync(fileDialog, save, result);
+							} else {
+								result.complete(selectedName);
+							}
+						});
+					} catch (SWTException swtEx) {
+						// The display has been disposed
+						result.cancel(false);
+					}
+				});
+	}
+
+	/**
+	 * Creates the default check executor. It uses a bounded number of daemon
+	 * threads, so that checks hanging on a stalled network share queue up instead
+	 * of creating a thread each; idle threads terminate after a while.
+	 *
+	 * @return The executor.
+	 */
+	private static ExecutorService createCheckExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CHECK_THREADS, MAX_CHECK_THREADS, 30,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "FileChooser check");
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Summarizes the rejected files of a multi-selection in a message.
+	 *
+	 * @param selection The multi-selection.
+	 * @param count     The number of selected files.
+	 * @return The summary message.
+	 */
+	private static String summarize(MultiSelection selection, int count) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(selection.rejectedFiles.size()).append(" of ").append(count)
+				.append(" selected files were rejected:\n");
+		int lines = 0;
+		for (Map.Entry<String, String> entry : selection.rejectedFiles.entrySet()) {
+			if (lines++ == MAX_SUMMARY_LINES) {
+				sb.append("\n... and ").append(selection.rejectedFiles.size() - MAX_SUMMARY_LINES).append(" more");
+				break;
+			}
+			sb.append('\n').append(entry.getKey()).append(": ").append(entry.getValue());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Checks that the specified file exists, is a regular, readable file and does
+	 * not exceed the maximum size.
+	 *
+	 * @param name        The name of the file.
+	 * @param maxFileSize The maximum file size in bytes.
+	 * @return The result of the check.
+	 */
+	private static FileCheck checkFile(String name, long maxFileSize) {
+		FileCheck check = new FileCheck();
+		try {
+			Path path = Paths.get(name);
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			check.size = attributes.size();
+			if (!attributes.isRegularFile()) {
+				check.reason = "Not a regular file";
+			} else if (!Files.isReadable(path)) {
+				check.reason = "File is not readable";
+			} else if (check.size > maxFileSize) {
+				check.reason = "File is too large";
+			}
+		} catch (IOException | InvalidPathException ex) {
+			check.reason = "File does not exist";
+		}
+		return check;
+	}
+
+	/**
+	 * Checks whether the specified file exists and is a regular file, reading its
+	 * attributes only once.
+	 *
+	 * @param name The name of the file.
+	 * @return True if the file is an existing regular file, false otherwise.
+	 */
+	private static boolean isRegularFile(String name) {
+		try {
+			return Files.readAttributes(Paths.get(name), BasicFileAttributes.class).isRegularFile();
+		} catch (IOException | InvalidPathException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * The result of validating a single file.
+	 */
+	private static final class FileCheck {
+		private long size;
+		private String reason;
+	}
+
+	/**
+	 * The files selected in multi-select mode, separated into valid and rejected
+	 * files.
+	 */
+	public static final class MultiSelection {
+		private final Map<String, Long> validFiles = new LinkedHashMap<>();
+		private final Map<String, String> rejectedFiles = new LinkedHashMap<>();
+
+		// Instances are only created by the file chooser.
+		private MultiSelection() {
+		}
+
+		/**
+		 * Returns the valid files in selection order.
+		 *
+		 * @return The names of the valid files.
+		 */
+		public List<String> getValidFiles() {
+			return Collections.unmodifiableList(new ArrayList<>(validFiles.keySet()));
+		}
+
+		/**
+		 * Returns the size of a valid file.
+		 *
+		 * @param fileName The name of the valid file.
+		 * @return The size in bytes, or -1 if the file is not valid.
+		 */
+		public long getFileSize(String fileName) {
+			Long size = validFiles.get(fileName);
+			return size != null ? size : -1;
+		}
+
+		/**
+		 * Returns the total size of all valid files.
+		 *
+		 * @return The total size in bytes.
+		 */
+		public long getTotalSize() {
+			long total = 0;
+			for (long size : validFiles.values()) {
+				total += size;
+			}
+			return total;
+		}
+
+		/**
+		 * Returns the rejected files with the reasons for their rejection.
+		 *
+		 * @return A map from the names of the rejected files to the reasons.
+		 */
+		public Map<String, String> getRejectedFiles() {
+			return Collections.unmodifiableMap(rejectedFiles);
+		}
+	}
 }
\ No newline at end of file
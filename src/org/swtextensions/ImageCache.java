@@ -0,0 +1,232 @@
+package org.swtextensions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A reference-counted cache of images loaded from resources, shared by all
+ * windows of a display.
+ * <p>
+ * An image is loaded when it is acquired for the first time and disposed when
+ * the last user releases it. Each image is backed by an image data provider, so
+ * the variant of a resource for a zoom level, e.g. icon@2x.png for 200%, is only
+ * loaded when the display actually needs that zoom level. The cache counts the
+ * live images and the bytes of the image data loaded for them. All methods
+ * except the counters must be called on the UI thread.
+ */
+public final class ImageCache {
+	private static final Map<Display, ImageCache> caches = new ConcurrentHashMap<>();
+
+	private final Display display;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final Map<Image, Entry> entriesByImage = new IdentityHashMap<>();
+	private final AtomicInteger imageCount = new AtomicInteger();
+	private final AtomicLong byteCount = new AtomicLong();
+
+	/**
+	 * Constructs the cache of a display.
+	 *
+	 * @param display The display that owns the images.
+	 */
+	private ImageCache(Display display) {
+		this.display = display;
+	}
+
+	/**
+	 * Retrieves the cache of the specified display, creating it if necessary. The
+	 * images of the cache are disposed together with the display. Must be called
+	 * on the UI thread of the display.
+	 *
+	 * @param display The display.
+	 * @return The cache of the display.
+	 */
+	public static ImageCache get(Display display) {
+		ImageCache cache = caches.get(display);
+		if (cache == null) {
+			ImageCache newCache = new ImageCache(display);
+			caches.put(display, newCache);
+			display.disposeExec(() -> {
+				caches.remove(display);
+				newCache.disposeAll();
+			});
+			cache = newCache;
+		}
+		return cache;
+	}
+
+	/**
+	 * Acquires the image of a resource, loading it if no user holds it yet. Every
+	 * call must be balanced by a call of {@link #release(Image)}.
+	 *
+	 * @param resource The URL of the image resource, e.g. obtained with
+	 *                 Class.getResource.
+	 * @return The shared image.
+	 */
+	public Image acquire(URL resource) {
+		if (resource == null) {
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+
+		String key = resource.toExternalForm();
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			Entry newEntry = new Entry(key);
+			newEntry.image = ResourceTracker.track(new Image(display, new ImageDataProvider() {
+				@Override
+				public ImageData getImageData(int zoom) {
+					ImageData data = load(resource, zoom);
+					if (data != null) {
+						long bytes = getByteCount(data);
+						newEntry.bytes += bytes;
+						byteCount.addAndGet(bytes);
+					}
+					return data;
+				}
+			}));
+			entry = newEntry;
+			entries.put(key, entry);
+			entriesByImage.put(entry.image, entry);
+			imageCount.incrementAndGet();
+		}
+		entry.references++;
+		return entry.image;
+	}
+
+	/**
+	 * Releases an acquired image. The image is disposed when its last user
+	 * releases it.
+	 *
+	 * @param image The image to release, or null.
+	 */
+	public void release(Image image) {
+		Entry entry = image != null ? entriesByImage.get(image) : null;
+		if (entry == null || --entry.references > 0) {
+			return;
+		}
+
+		entries.remove(entry.key);
+		entriesByImage.remove(image);
+		imageCount.decrementAndGet();
+		byteCount.addAndGet(-entry.bytes);
+		ResourceTracker.untrack(image);
+		image.dispose();
+	}
+
+	/**
+	 * Returns the number of live images. Can be called from any thread.
+	 *
+	 * @return The number of images.
+	 */
+	public int getImageCount() {
+		return imageCount.get();
+	}
+
+	/**
+	 * Returns the number of bytes of image data loaded for the live images. Can
+	 * be called from any thread.
+	 *
+	 * @return The number of bytes.
+	 */
+	public long getByteCount() {
+		return byteCount.get();
+	}
+
+	/**
+	 * Disposes all images when the display is disposed. Images that are still
+	 * acquired at this point remain tracked, so that the resource tracker
+	 * reports them as leaks.
+	 */
+	private void disposeAll() {
+		for (Entry entry : new ArrayList<>(entries.values())) {
+			entry.image.dispose();
+		}
+		entries.clear();
+		entriesByImage.clear();
+		imageCount.set(0);
+		byteCount.set(0);
+	}
+
+	/**
+	 * Loads the image data of a resource for a zoom level. The 100% data is read
+	 * from the resource itself, the data of other zoom levels from a variant
+	 * named with the scale factor, e.g. icon@2x.png or icon@1.5x.png.
+	 *
+	 * @param resource The URL of the image resource.
+	 * @param zoom     The zoom level in percent.
+	 * @return The image data, or null if there is no variant for the zoom level.
+	 */
+	private static ImageData load(URL resource, int zoom) {
+		URL url = resource;
+		if (zoom != 100) {
+			String path = resource.toExternalForm();
+			int dot = path.lastIndexOf('.');
+			if (dot <= path.lastIndexOf('/')) {
+				return null;
+			}
+			String scale = zoom % 100 == 0 ? Integer.toString(zoom / 100) : Double.toString(zoom / 100.0);
+			try {
+				url = new URL(path.substring(0, dot) + "@" + scale + "x" + path.substring(dot));
+			} catch (MalformedURLException ex) {
+				return null;
+			}
+		}
+
+		try (InputStream in = url.openStream()) {
+			return new ImageData(in);
+		} catch (IOException ex) {
+			if (zoom != 100) {
+				// Missing variants are scaled from the 100% data
+				return null;
+			}
+			SWT.error(SWT.ERROR_IO, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Estimates the number of bytes of image data.
+	 *
+	 * @param data The image data.
+	 * @return The number of bytes of the pixels, the alpha data and the mask.
+	 */
+	private static long getByteCount(ImageData data) {
+		long bytes = data.data != null ? data.data.length : 0;
+		bytes += data.alphaData != null ? data.alphaData.length : 0;
+		bytes += data.maskData != null ? data.maskData.length : 0;
+		return bytes;
+	}
+
+	/**
+	 * A cached image with its number of users.
+	 */
+	private static final class Entry {
+		private final String key;
+		private Image image;
+		private int references;
+		private long bytes;
+
+		/**
+		 * Constructs an entry.
+		 *
+		 * @param key The key of the resource.
+		 */
+		private Entry(String key) {
+			this.key = key;
+		}
+	}
+}
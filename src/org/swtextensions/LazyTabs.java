@@ -0,0 +1,238 @@
+package org.swtextensions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CTabFolder;
+import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.TabFolder;
+import org.eclipse.swt.widgets.TabItem;
+
+/**
+ * A helper that creates the contents of the tabs of a tab folder on demand and
+ * remembers the selected tab of a dialog class through {@link TabManager}.
+ * <p>
+ * When the dialog opens, only the tab remembered for the dialog class is built.
+ * Every other tab is built when it is selected for the first time, or, if
+ * pre-building is enabled, one tab at a time while the display is idle. The
+ * selected tab is stored in the TabManager when the tab folder is disposed.
+ * Both {@link TabFolder} and {@link CTabFolder} are supported.
+ */
+public class LazyTabs {
+	private final Composite folder;
+	private final String dialogClass;
+	private final List<Item> items = new ArrayList<>();
+	private final List<Function<Composite, Control>> factories = new ArrayList<>();
+	private final Runnable prebuildRunnable = this::prebuildNext;
+	private boolean prebuild;
+	private boolean opened;
+
+	/**
+	 * Constructs the helper for a tab folder.
+	 *
+	 * @param folder      The tab folder.
+	 * @param dialogClass The dialog class whose selected tab to remember.
+	 */
+	public LazyTabs(TabFolder folder, Class<?> dialogClass) {
+		this((Composite) folder, dialogClass);
+	}
+
+	/**
+	 * Constructs the helper for a custom tab folder.
+	 *
+	 * @param folder      The custom tab folder.
+	 * @param dialogClass The dialog class whose selected tab to remember.
+	 */
+	public LazyTabs(CTabFolder folder, Class<?> dialogClass) {
+		this((Composite) folder, dialogClass);
+	}
+
+	/**
+	 * Constructs the helper and hooks the tab folder.
+	 *
+	 * @param folder      The TabFolder or CTabFolder.
+	 * @param dialogClass The dialog class whose selected tab to remember.
+	 */
+	private LazyTabs(Composite folder, Class<?> dialogClass) {
+		this.folder = folder;
+		this.dialogClass = dialogClass.getName();
+
+		folder.addListener(SWT.Selection, new Listener() {
+			@Override
+			public void handleEvent(Event e) {
+				// Tab folders select their first item when it is created, before open
+				int index = getSelectionIndex();
+				if (opened && index >= 0) {
+					build(index);
+				}
+			}
+		});
+		folder.addListener(SWT.Dispose, new Listener() {
+			@Override
+			public void handleEvent(Event e) {
+				int index = getSelectionIndex();
+				if (opened && index >= 0) {
+					TabManager.put(LazyTabs.this.dialogClass, index);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Adds a tab whose contents are created by the factory when the tab is
+	 * needed for the first time.
+	 *
+	 * @param text    The text of the tab.
+	 * @param factory The function creating the contents of the tab within the
+	 *                given tab folder.
+	 * @return The index of the new tab.
+	 */
+	public int addTab(String text, Function<Composite, Control> factory) {
+		if (factory == null) {
+			throw new IllegalArgumentException();
+		}
+
+		factories.add(factory);
+		Item item;
+		if (folder instanceof CTabFolder) {
+			item = new CTabItem((CTabFolder) folder, SWT.NONE);
+		} else {
+			item = new TabItem((TabFolder) folder, SWT.NONE);
+		}
+		item.setText(text);
+		items.add(item);
+
+		// A tab added after opening may have been selected while it was created
+		int index = items.size() - 1;
+		if (opened && getSelectionIndex() == index) {
+			build(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Selects the tab remembered for the dialog class and builds its contents.
+	 * Call this method after adding all tabs and before the dialog is shown. If
+	 * pre-building is enabled, the other tabs are built afterwards while the
+	 * display is idle.
+	 */
+	public void open() {
+		opened = true;
+		if (!items.isEmpty()) {
+			select(Math.min(Math.max(0, TabManager.get(dialogClass)), items.size() - 1));
+		}
+		if (prebuild) {
+			folder.getDisplay().asyncExec(prebuildRunnable);
+		}
+	}
+
+	/**
+	 * Selects a tab, building its contents if necessary.
+	 *
+	 * @param index The index of the tab.
+	 */
+	public void select(int index) {
+		if (index >= 0 && index < items.size()) {
+			build(index);
+			if (folder instanceof CTabFolder) {
+				((CTabFolder) folder).setSelection(index);
+			} else {
+				((TabFolder) folder).setSelection(index);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the contents of a tab have been built.
+	 *
+	 * @param index The index of the tab.
+	 * @return True if the contents exist, false otherwise.
+	 */
+	public boolean isBuilt(int index) {
+		return index >= 0 && index < factories.size() && factories.get(index) == null;
+	}
+
+	/**
+	 * Returns the number of tabs.
+	 *
+	 * @return The number of tabs.
+	 */
+	public int getTabCount() {
+		return items.size();
+	}
+
+	/**
+	 * Sets whether the tabs that have not been selected yet are built while the
+	 * display is idle after the dialog has opened.
+	 *
+	 * @param prebuild True to build the remaining tabs in the background, false
+	 *                 to build them only when they are selected.
+	 */
+	public void setPrebuild(boolean prebuild) {
+		this.prebuild = prebuild;
+		if (prebuild && opened && !folder.isDisposed()) {
+			folder.getDisplay().asyncExec(prebuildRunnable);
+		}
+	}
+
+	/**
+	 * Returns the index of the selected tab of the tab folder.
+	 *
+	 * @return The index of the selected tab, or -1 if no tab is selected.
+	 */
+	private int getSelectionIndex() {
+		if (folder instanceof CTabFolder) {
+			return ((CTabFolder) folder).getSelectionIndex();
+		}
+		return ((TabFolder) folder).getSelectionIndex();
+	}
+
+	/**
+	 * Builds the contents of a tab unless they exist already or its item is still
+	 * being created.
+	 *
+	 * @param index The index of the tab.
+	 */
+	private void build(int index) {
+		Function<Composite, Control> factory = index < items.size() ? factories.get(index) : null;
+		if (factory == null) {
+			return;
+		}
+
+		long start = UIInstrumentation.start();
+		factories.set(index, null);
+		Control control = factory.apply(folder);
+		Item item = items.get(index);
+		if (item instanceof CTabItem) {
+			((CTabItem) item).setControl(control);
+		} else {
+			((TabItem) item).setControl(control);
+		}
+		UIInstrumentation.end(start, folder, "LazyTabs.build");
+	}
+
+	/**
+	 * Builds the next tab that has not been built yet and schedules itself
+	 * again, so that pending events are handled between two tabs.
+	 */
+	private void prebuildNext() {
+		if (!prebuild || folder.isDisposed()) {
+			return;
+		}
+
+		for (int index = 0; index < factories.size(); index++) {
+			if (factories.get(index) != null) {
+				build(index);
+				folder.getDisplay().asyncExec(prebuildRunnable);
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package org.swtextensions;
+
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.VerifyEvent;
+import org.eclipse.swt.events.VerifyListener;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * A listener to validate input in a text field against an input mask or a
+ * regular expression.
+ * <p>
+ * The mask or expression is compiled once into a deterministic automaton that
+ * is shared by all validators and text fields using it. An edit is accepted if
+ * the resulting text can still be completed to a matching text. For each text
+ * field, the validator caches the automaton state after every character, so an
+ * edit is checked by advancing from the cached state at the edit offset through
+ * the inserted characters; the following characters are only scanned until the
+ * state matches the cached state again. Large pastes are checked in a single
+ * pass over the inserted text without building the resulting string.
+ */
+public class MaskValidator implements VerifyListener {
+	private static final String DATA_KEY = MaskValidator.class.getName();
+
+	private final Dfa dfa;
+
+	/**
+	 * Constructs a validator.
+	 *
+	 * @param dfa The compiled automaton.
+	 */
+	private MaskValidator(Dfa dfa) {
+		this.dfa = dfa;
+	}
+
+	/**
+	 * Creates a validator for an input mask. In the mask, '#' stands for a digit,
+	 * 'U' for an uppercase letter, 'L' for a lowercase letter, '?' for a letter,
+	 * 'A' for a letter or digit, 'H' for a hexadecimal digit and '*' for any
+	 * character; letters are ASCII letters. A quote escapes the next character,
+	 * and all other characters stand for themselves.
+	 *
+	 * @param mask The input mask, e.g. "##.##.####" for a date.
+	 * @return The validator.
+	 */
+	public static MaskValidator ofMask(String mask) {
+		return new MaskValidator(Dfa.forMask(mask));
+	}
+
+	/**
+	 * Creates a validator for a regular expression that the whole text must
+	 * match. Literals, '.', character classes, the escapes \d, \w and \s and their
+	 * negations, groups, alternation and the quantifiers *, +, ? and {m,n} are
+	 * supported; backreferences, lookaround and nested or intersected character
+	 * classes are not.
+	 *
+	 * @param regex The regular expression.
+	 * @return The validator.
+	 * @throws IllegalArgumentException If the expression is malformed, uses
+	 *                                  unsupported syntax or is too complex.
+	 */
+	public static MaskValidator ofPattern(String regex) {
+		return new MaskValidator(Dfa.forPattern(regex));
+	}
+
+	/**
+	 * Verifies that the text input can still be completed to a matching text.
+	 *
+	 * @param event The verify event.
+	 */
+	@Override
+	public void verifyText(VerifyEvent event) {
+		long start = UIInstrumentation.start();
+		Text textField = (Text) event.getSource();
+		FieldState fieldState = getFieldState(textField);
+		int[] newStates = advance(fieldState, textField, event.start, event.end, event.text);
+		if (newStates != null) {
+			fieldState.pending = newStates;
+			fieldState.pendingStart = event.start;
+			fieldState.pendingText = event.text;
+		} else {
+			event.doit = false;
+		}
+		UIInstrumentation.end(start, textField, "MaskValidator.verifyText");
+	}
+
+	/**
+	 * Checks whether the text that results from replacing the range of the old
+	 * text with the inserted text can still be completed to a matching text.
+	 *
+	 * @param oldText  The current text.
+	 * @param start    The start of the replaced range.
+	 * @param end      The end of the replaced range.
+	 * @param inserted The inserted text.
+	 * @return True if the resulting text is acceptable, false otherwise.
+	 */
+	public boolean accepts(String oldText, int start, int end, String inserted) {
+		int state = dfa.start();
+		for (int i = 0; i < start && state != Dfa.DEAD; i++) {
+			state = dfa.next(state, oldText.charAt(i));
+		}
+		for (int i = 0; i < inserted.length() && state != Dfa.DEAD; i++) {
+			state = dfa.next(state, inserted.charAt(i));
+		}
+		for (int i = end; i < oldText.length() && state != Dfa.DEAD; i++) {
+			state = dfa.next(state, oldText.charAt(i));
+		}
+		return dfa.isLive(state);
+	}
+
+	/**
+	 * Checks whether a text completely matches the mask or expression.
+	 *
+	 * @param text The text.
+	 * @return True if the text matches, false otherwise.
+	 */
+	public boolean matches(String text) {
+		int state = dfa.start();
+		for (int i = 0; i < text.length() && state != Dfa.DEAD; i++) {
+			state = dfa.next(state, text.charAt(i));
+		}
+		return dfa.isAccepting(state);
+	}
+
+	/**
+	 * Checks whether the text of a text field completely matches the mask or
+	 * expression, using the cached state of the field if possible.
+	 *
+	 * @param textField The text field.
+	 * @return True if the text matches, false otherwise.
+	 */
+	public boolean isComplete(Text textField) {
+		FieldState fieldState = getFieldState(textField);
+		int[] states = getStates(fieldState, textField);
+		return dfa.isAccepting(states[states.length - 1]);
+	}
+
+	/**
+	 * Computes the states of the text that results from an edit.
+	 *
+	 * @param fieldState The cached state of the text field.
+	 * @param textField  The text field.
+	 * @param start      The start of the replaced range.
+	 * @param end        The end of the replaced range.
+	 * @param inserted   The inserted text.
+	 * @return The states after every character of the resulting text, or null
+	 *         if the resulting text cannot be completed to a matching text.
+	 */
+	private int[] advance(FieldState fieldState, Text textField, int start, int end, String inserted) {
+		int[] states = getStates(fieldState, textField);
+		int oldLength = states.length - 1;
+		int insertedLength = inserted.length();
+		int[] newStates = new int[start + insertedLength + oldLength - end + 1];
+		System.arraycopy(states, 0, newStates, 0, start + 1);
+
+		int state = states[start];
+		if (state == Dfa.DEAD) {
+			return null;
+		}
+		for (int i = 0; i < insertedLength; i++) {
+			state = dfa.next(state, inserted.charAt(i));
+			if (state == Dfa.DEAD) {
+				return null;
+			}
+			newStates[start + i + 1] = state;
+		}
+
+		// Scan the unchanged tail only until it continues from a cached state
+		int offset = start + insertedLength - end;
+		int position = end;
+		String tail = null;
+		while (position < oldLength && state != states[position]) {
+			if (tail == null) {
+				tail = textField.getText(end, oldLength - 1);
+			}
+			state = dfa.next(state, tail.charAt(position - end));
+			if (state == Dfa.DEAD) {
+				return null;
+			}
+			position++;
+			newStates[position + offset] = state;
+		}
+		if (position < oldLength) {
+			System.arraycopy(states, position + 1, newStates, position + offset + 1, oldLength - position);
+		}
+		return dfa.isLive(newStates[newStates.length - 1]) ? newStates : null;
+	}
+
+	/**
+	 * Retrieves the states after every character of the text of a text field,
+	 * scanning the text if they are not cached.
+	 *
+	 * @param fieldState The cached state of the text field.
+	 * @param textField  The text field.
+	 * @return The states, starting with the start state.
+	 */
+	private int[] getStates(FieldState fieldState, Text textField) {
+		if (fieldState.states == null || fieldState.dfa != dfa) {
+			String text = textField.getText();
+			int[] states = new int[text.length() + 1];
+			int state = dfa.start();
+			states[0] = state;
+			for (int i = 0; i < text.length(); i++) {
+				if (state != Dfa.DEAD) {
+					state = dfa.next(state, text.charAt(i));
+				}
+				states[i + 1] = state;
+			}
+			fieldState.dfa = dfa;
+			fieldState.states = states;
+		}
+		return fieldState.states;
+	}
+
+	/**
+	 * Retrieves the cached state of a text field, installing the listener that
+	 * keeps it up to date on first use.
+	 *
+	 * @param textField The text field.
+	 * @return The cached state of the text field.
+	 */
+	private static FieldState getFieldState(Text textField) {
+		FieldState fieldState = (FieldState) textField.getData(DATA_KEY);
+		if (fieldState == null) {
+			FieldState newState = new FieldState();
+			textField.setData(DATA_KEY, newState);
+			textField.addModifyListener(new ModifyListener() {
+				@Override
+				public void modifyText(ModifyEvent e) {
+					newState.commit(textField);
+				}
+			});
+			fieldState = newState;
+		}
+		return fieldState;
+	}
+
+	/**
+	 * The cached automaton states of a text field.
+	 */
+	private static final class FieldState {
+		private Dfa dfa;
+		private int[] states;
+		private int[] pending;
+		private int pendingStart;
+		private String pendingText;
+
+		/**
+		 * Adopts the states computed for the last verified edit if the modified
+		 * text has the expected length and contains the verified inserted text at
+		 * the edit offset, or drops the cache otherwise, e.g. if another listener
+		 * replaced the inserted text. Other changes of the edit that keep the
+		 * length and the inserted text are not detected.
+		 *
+		 * @param textField The modified text field.
+		 */
+		private void commit(Text textField) {
+			boolean expected = pending != null && pending.length == textField.getCharCount() + 1;
+			if (expected && !pendingText.isEmpty()) {
+				int end = pendingStart + pendingText.length() - 1;
+				expected = pendingText.equals(textField.getText(pendingStart, end));
+			}
+			states = expected ? pending : null;
+			pending = null;
+			pendingText = null;
+		}
+	}
+}
@@ -1,14 +1,44 @@
 package org.swtextensions;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.MessageBox;
 import org.eclipse.swt.widgets.Shell;
 
 /**
  * Utility object for displaying various message dialogs.
+ * <p>
+ * Notifications can be posted from any thread. Identical notifications posted
+ * within the notification window are merged, distinct notifications of the same
+ * kind are batched into one dialog, and the number of notification dialogs open
+ * at once is capped.
+ * <p>
+ * If no shell is active, the dialogs are parented to a hidden shell that is
+ * created once per display, reused across calls and disposed with its display.
  */
 public final class MessageDialog {
+	private static final Object notificationLock = new Object();
+	private static final Map<String, Notification> pendingNotifications = new LinkedHashMap<>();
+	private static final Map<String, Long> shownNotifications = new HashMap<>();
+	private static long notificationWindow = 1000;
+	private static int maxOpenNotifications = 1;
+	private static int openNotifications;
+	private static boolean notificationsScheduled;
+	private static final Map<Display, Shell> hiddenShells = new ConcurrentHashMap<>();
+	private static final AtomicLong messageBoxesOpened = new AtomicLong();
+	private static final AtomicLong messageBoxesClosed = new AtomicLong();
+	private static final AtomicLong shellsCreated = new AtomicLong();
+
 	// Private constructor to prevent instantiation of this class.
 	private MessageDialog() {
 	}
@@ -113,24 +143,287 @@ public final class MessageDialog {
 	}
 
 	/**
-	 * Retrieves the current shell or creates a new one if none is active.
+	 * Posts an error notification. This method can be called from any thread and
+	 * does not wait for the dialog.
+	 *
+	 * @param message The message to display in the dialog.
+	 */
+	public static void postError(String message) {
+		postError("Error", message);
+	}
+
+	/**
+	 * Posts an error notification. This method can be called from any thread and
+	 * does not wait for the dialog.
+	 *
+	 * @param title   The title of the dialog.
+	 * @param message The message to display in the dialog.
+	 */
+	public static void postError(String title, String message) {
+		postNotification(title, message, SWT.OK | SWT.ICON_ERROR);
+	}
+
+	/**
+	 * Posts an information notification. This method can be called from any
+	 * thread and does not wait for the dialog.
+	 *
+	 * @param message The message to display in the dialog.
+	 */
+	public static void postInformation(String message) {
+		postInformation("Information", message);
+	}
+
+	/**
+	 * Posts an information notification. This method can be called from any
+	 * thread and does not wait for the dialog.
+	 *
+	 * @param title   The title of the dialog.
+	 * @param message The message to display in the dialog.
+	 */
+	public static void postInformation(String title, String message) {
+		postNotification(title, message, SWT.OK | SWT.ICON_INFORMATION);
+	}
+
+	/**
+	 * Posts a warning notification. This method can be called from any thread and
+	 * does not wait for the dialog.
+	 *
+	 * @param message The message to display in the dialog.
+	 */
+	public static void postWarning(String message) {
+		postWarning("Warning", message);
+	}
+
+	/**
+	 * Posts a warning notification. This method can be called from any thread and
+	 * does not wait for the dialog.
+	 *
+	 * @param title   The title of the dialog.
+	 * @param message The message to display in the dialog.
+	 */
+	public static void postWarning(String title, String message) {
+		postNotification(title, message, SWT.OK | SWT.ICON_WARNING);
+	}
+
+	/**
+	 * Sets the time window in which identical notifications are merged and
+	 * distinct notifications are collected into one dialog.
+	 *
+	 * @param millis The notification window in milliseconds.
+	 */
+	public static void setNotificationWindow(long millis) {
+		synchronized (notificationLock) {
+			notificationWindow = Math.max(0, millis);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of notification dialogs open at once.
+	 *
+	 * @param max The maximum number of open notification dialogs.
+	 */
+	public static void setMaxOpenNotifications(int max) {
+		synchronized (notificationLock) {
+			maxOpenNotifications = Math.max(1, max);
+		}
+	}
+
+	/**
+	 * Returns the number of message boxes opened.
 	 *
-	 * @return The current or a new shell.
+	 * @return The number of opened message boxes.
 	 */
-	private static Shell getShell() {
+	public static long getMessageBoxesOpened() {
+		return messageBoxesOpened.get();
+	}
+
+	/**
+	 * Returns the number of message boxes closed.
+	 *
+	 * @return The number of closed message boxes.
+	 */
+	public static long getMessageBoxesClosed() {
+		return messageBoxesClosed.get();
+	}
+
+	/**
+	 * Returns the number of hidden parent shells created.
+	 *
+	 * @return The number of created shells.
+	 */
+	public static long getShellsCreated() {
+		return shellsCreated.get();
+	}
+
+	/**
+	 * Queues a notification and schedules the queue to be shown.
+	 *
+	 * @param title   The title of the dialog.
+	 * @param message The message to display in the dialog.
+	 * @param style   The style of the dialog (e.g., SWT.ICON_ERROR).
+	 */
+	private static void postNotification(String title, String message, int style) {
+		String key = style + "\n" + title + "\n" + message;
+		long now = System.currentTimeMillis();
+		synchronized (notificationLock) {
+			Long shown = shownNotifications.get(key);
+			if (shown != null && now - shown < notificationWindow) {
+				return;
+			}
+
+			Notification notification = pendingNotifications.get(key);
+			if (notification != null) {
+				notification.count++;
+				return;
+			}
+			pendingNotifications.put(key, new Notification(title, message, style));
+		}
+		scheduleNotifications(getDisplay());
+	}
+
+	/**
+	 * Schedules the pending notifications to be shown after the notification
+	 * window unless this is already scheduled.
+	 *
+	 * @param display The display showing the notifications.
+	 */
+	private static void scheduleNotifications(Display display) {
+		int delay;
+		synchronized (notificationLock) {
+			if (notificationsScheduled || pendingNotifications.isEmpty()) {
+				return;
+			}
+			notificationsScheduled = true;
+			delay = (int) notificationWindow;
+		}
+		try {
+			display.asyncExec(() -> display.timerExec(delay, MessageDialog::showNotifications));
+		} catch (SWTException ex) {
+			// The display has been disposed, so its notifications are dropped
+			synchronized (notificationLock) {
+				notificationsScheduled = false;
+				pendingNotifications.clear();
+			}
+		}
+	}
+
+	/**
+	 * Shows the pending notifications, one dialog per kind, as long as fewer than
+	 * the maximum number of notification dialogs are open. Runs on the UI thread.
+	 */
+	private static void showNotifications() {
+		while (true) {
+			List<Notification> batch = new ArrayList<>();
+			synchronized (notificationLock) {
+				notificationsScheduled = false;
+				if (pendingNotifications.isEmpty() || openNotifications >= maxOpenNotifications) {
+					return;
+				}
+
+				int style = pendingNotifications.values().iterator().next().style;
+				long now = System.currentTimeMillis();
+				Iterator<Map.Entry<String, Notification>> it = pendingNotifications.entrySet().iterator();
+				while (it.hasNext()) {
+					Map.Entry<String, Notification> entry = it.next();
+					if (entry.getValue().style == style) {
+						batch.add(entry.getValue());
+						shownNotifications.put(entry.getKey(), now);
+						it.remove();
+					}
+				}
+				shownNotifications.values().removeIf(shown -> now - shown >= notificationWindow);
+				openNotifications++;
+			}
+
+			try {
+				showMessageDialog(batch.get(0).title, summarize(batch), batch.get(0).style);
+			} finally {
+				synchronized (notificationLock) {
+					openNotifications--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Combines a batch of notifications into one message.
+	 *
+	 * @param batch The notifications of the same kind.
+	 * @return The combined message.
+	 */
+	private static String summarize(List<Notification> batch) {
+		if (batch.size() == 1) {
+			Notification notification = batch.get(0);
+			return notification.count == 1 ? notification.message
+					: notification.message + "\n\n(" + notification.count + " times)";
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(batch.size()).append(" messages:");
+		for (Notification notification : batch) {
+			sb.append("\n\n").append(notification.message);
+			if (notification.count > 1) {
+				sb.append(" (").append(notification.count).append(" times)");
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Retrieves the current display or the default display.
+	 *
+	 * @return The display.
+	 */
+	private static Display getDisplay() {
 		Display display = Display.getCurrent();
 		if (display == null) {
 			display = Display.getDefault();
 		}
+		return display;
+	}
+
+	/**
+	 * Retrieves the current shell or the hidden shell of the display if none is
+	 * active. Package-private so that the benchmarks can measure it.
+	 *
+	 * @return The current or the hidden shell.
+	 */
+	static Shell getShell() {
+		Display display = getDisplay();
 
 		Shell shell = display.getActiveShell();
 		if (shell == null) {
-			shell = new Shell();
+			shell = getHiddenShell(display);
 		}
 
 		return shell;
 	}
 
+	/**
+	 * Retrieves the hidden shell of the display, creating it if necessary. The
+	 * shell is disposed and forgotten when the display is disposed.
+	 *
+	 * @param display The display of the shell.
+	 * @return The hidden shell.
+	 */
+	private static Shell getHiddenShell(Display display) {
+		Shell shell = hiddenShells.get(display);
+		if (shell == null || shell.isDisposed()) {
+			if (shell == null) {
+				display.disposeExec(() -> {
+					Shell hiddenShell = hiddenShells.remove(display);
+					if (hiddenShell != null && !hiddenShell.isDisposed()) {
+						hiddenShell.dispose();
+					}
+				});
+			}
+			shell = ResourceTracker.track(new Shell(display));
+			shellsCreated.incrementAndGet();
+			hiddenShells.put(display, shell);
+		}
+		return shell;
+	}
+
 	/**
 	 * Shows a message dialog with the given title, message, and style.
 	 *
@@ -144,6 +437,35 @@ public final class MessageDialog {
 		MessageBox mb = new MessageBox(parent, style);
 		mb.setMessage(message);
 		mb.setText(title);
-		return mb.open();
+		messageBoxesOpened.incrementAndGet();
+		try {
+			return mb.open();
+		} finally {
+			messageBoxesClosed.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A queued notification.
+	 */
+	private static final class Notification {
+		private final String title;
+		private final String message;
+		private final int style;
+		private int count;
+
+		/**
+		 * Constructs a notification that was posted once.
+		 *
+		 * @param title   The title of the dialog.
+		 * @param message The message to display in the dialog.
+		 * @param style   The style of the dialog.
+		 */
+		private Notification(String title, String message, int style) {
+			this.title = title;
+			this.message = message;
+			this.style = style;
+			this.count = 1;
+		}
 	}
 }
\ No newline at end of file
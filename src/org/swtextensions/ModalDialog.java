@@ -1,16 +1,37 @@
 package org.swtextensions;
 
+import java.util.Arrays;
+
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Shell;
 
 /**
  * A modal dialog with customizable buttons.
+ * <p>
+ * In pooled mode, closing the dialog only hides its shell, and opening it again
+ * shows the same shell after re-binding its data. Expensive controls can be
+ * created in {@link #createDeferredContents(Composite)}, which runs after the
+ * shell and buttons have been shown. The time from opening to the first paint
+ * is measured on every open.
  */
 public abstract class ModalDialog extends Dialog {
 	protected Object[][] buttonObjects;
+	private ButtonBarSpec buttonBarSpec;
+	private Object[][] specObjects;
+	private boolean pooled;
+	private boolean blockOnOpen = true;
+	private boolean disposing;
+	private long openStartNanos;
+	private long timeToFirstPaint = -1;
+	private boolean firstPaintPending;
 
 	/**
 	 * Constructs a modal dialog with customizable buttons.
@@ -22,15 +43,198 @@ public abstract class ModalDialog extends Dialog {
 	 */
 	protected ModalDialog(Shell parentShell, Object[][] buttonObjects) {
 		super(parentShell);
+		this.buttonBarSpec = ButtonBarSpec.fromObjects(buttonObjects);
+		this.specObjects = buttonBarSpec.toObjects();
+		this.buttonObjects = buttonObjects;
+	}
+
+	/**
+	 * Constructs a modal dialog with the described buttons.
+	 *
+	 * @param parentShell   The parent shell under which this dialog will be
+	 *                      displayed.
+	 * @param buttonBarSpec The description of the buttons to be displayed, which
+	 *                      can be shared across dialogs.
+	 */
+	protected ModalDialog(Shell parentShell, ButtonBarSpec buttonBarSpec) {
+		super(parentShell);
+		this.buttonBarSpec = buttonBarSpec;
+		this.specObjects = buttonBarSpec.toObjects();
+		this.buttonObjects = buttonBarSpec.toObjects();
+	}
 
-		for (int i = 0; i < buttonObjects.length; i++) {
-			if (buttonObjects[i].length != 3 || !(buttonObjects[i][0] instanceof Integer)
-					|| !(buttonObjects[i][1] instanceof String) || !(buttonObjects[i][2] instanceof Boolean)) {
-				throw new IllegalArgumentException();
+	/**
+	 * Creates the dialog and schedules the creation of the deferred contents.
+	 */
+	@Override
+	public void create() {
+		super.create();
+
+		Listener paintListener = new Listener() {
+			@Override
+			public void handleEvent(Event e) {
+				if (firstPaintPending) {
+					firstPaintPending = false;
+					timeToFirstPaint = System.nanoTime() - openStartNanos;
+					firstPainted(timeToFirstPaint);
+				}
+			}
+		};
+		getShell().addListener(SWT.Paint, paintListener);
+		for (Control control : new Control[] { dialogArea, buttonBar }) {
+			if (control != null) {
+				control.addListener(SWT.Paint, paintListener);
 			}
 		}
 
-		this.buttonObjects = buttonObjects;
+		getShell().getDisplay().asyncExec(() -> {
+			Shell shell = getShell();
+			if (shell == null || shell.isDisposed()) {
+				return;
+			}
+
+			if (dialogArea instanceof Composite) {
+				Composite area = (Composite) dialogArea;
+				int childCount = area.getChildren().length;
+				createDeferredContents(area);
+				if (area.getChildren().length != childCount) {
+					// Grow the shell if the deferred contents need more space
+					Point preferredSize = shell.computeSize(SWT.DEFAULT, SWT.DEFAULT, true);
+					Point size = shell.getSize();
+					shell.setSize(Math.max(size.x, preferredSize.x), Math.max(size.y, preferredSize.y));
+					shell.layout(true, true);
+				}
+			}
+			bindData();
+		});
+	}
+
+	/**
+	 * Opens the dialog. In pooled mode, a hidden shell from a previous use is
+	 * shown again after re-binding its data.
+	 *
+	 * @return The return code of the dialog.
+	 */
+	@Override
+	public int open() {
+		openStartNanos = System.nanoTime();
+		firstPaintPending = true;
+		if (!pooled) {
+			return super.open();
+		}
+
+		Shell shell = getShell();
+		if (shell == null || shell.isDisposed()) {
+			create();
+			shell = getShell();
+			constrainShellSize();
+		} else {
+			setReturnCode(OK);
+			bindData();
+		}
+		shell.open();
+
+		if (blockOnOpen) {
+			Display display = shell.getDisplay();
+			while (!shell.isDisposed() && shell.isVisible()) {
+				if (!display.readAndDispatch()) {
+					display.sleep();
+				}
+			}
+		}
+		return getReturnCode();
+	}
+
+	/**
+	 * Closes the dialog. In pooled mode, the shell is only hidden.
+	 *
+	 * @return True if the dialog was closed or hidden, false otherwise.
+	 */
+	@Override
+	public boolean close() {
+		Shell shell = getShell();
+		if (pooled && !disposing && shell != null && !shell.isDisposed()) {
+			shell.setVisible(false);
+			return true;
+		}
+		return super.close();
+	}
+
+	/**
+	 * Closes the dialog and disposes its shell, even in pooled mode.
+	 *
+	 * @return True if the dialog was closed, false otherwise.
+	 */
+	public boolean dispose() {
+		disposing = true;
+		try {
+			return super.close();
+		} finally {
+			disposing = false;
+		}
+	}
+
+	/**
+	 * Returns whether the dialog keeps its shell hidden between uses.
+	 *
+	 * @return True if the dialog is pooled, false otherwise.
+	 */
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	/**
+	 * Sets whether the dialog keeps its shell hidden between uses.
+	 *
+	 * @param pooled True to hide the shell on close, false to dispose it.
+	 */
+	public void setPooled(boolean pooled) {
+		this.pooled = pooled;
+	}
+
+	/**
+	 * Sets whether opening the dialog blocks until it is closed.
+	 *
+	 * @param shouldBlock True to block, false to return immediately.
+	 */
+	@Override
+	public void setBlockOnOpen(boolean shouldBlock) {
+		super.setBlockOnOpen(shouldBlock);
+		this.blockOnOpen = shouldBlock;
+	}
+
+	/**
+	 * Returns the time from the last call of open to the first paint of the
+	 * dialog.
+	 *
+	 * @return The time in nanoseconds, or -1 if the dialog has not been painted.
+	 */
+	public long getTimeToFirstPaint() {
+		return timeToFirstPaint;
+	}
+
+	/**
+	 * Binds the data to the controls of the dialog. Called once all contents have
+	 * been created, and again each time a pooled dialog is reopened.
+	 */
+	protected void bindData() {
+	}
+
+	/**
+	 * Creates expensive contents of the dialog area. Called on the UI thread after
+	 * the shell and buttons have been shown.
+	 *
+	 * @param parent The dialog area.
+	 */
+	protected void createDeferredContents(Composite parent) {
+	}
+
+	/**
+	 * Reports the time from opening the dialog to its first paint.
+	 *
+	 * @param nanos The time in nanoseconds.
+	 */
+	protected void firstPainted(long nanos) {
 	}
 
 	/**
@@ -40,21 +244,34 @@ public abstract class ModalDialog extends Dialog {
 	 */
 	@Override
 	protected void createButtonsForButtonBar(Composite parent) {
-		if (buttonObjects.length > 0) {
-			if (SWT.getPlatform().equals("cocoa")) {
-				for (int i = buttonObjects.length - 1; i >= 0; i--) {
-					createButton(parent, (Integer) buttonObjects[i][0], (String) buttonObjects[i][1],
-							(Boolean) buttonObjects[i][2]);
-				}
-			} else {
-				for (Object[] buttonObject : buttonObjects) {
-					createButton(parent, (Integer) buttonObject[0], (String) buttonObject[1],
-							(Boolean) buttonObject[2]);
+		ButtonBarSpec spec = getButtonBarSpec();
+		if (!spec.getButtons().isEmpty()) {
+			parent.setRedraw(false);
+			try {
+				for (ButtonSpec button : spec.getOrderedButtons()) {
+					createButton(parent, button.getId(), button.getLabel(), button.isDefaultButton());
 				}
+			} finally {
+				parent.setRedraw(true);
 			}
 		} else {
 			GridLayout gridLayout = (GridLayout) parent.getLayout();
 			gridLayout.marginHeight = 0;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns the description of the buttons. If a subclass has replaced or
+	 * modified the button objects since the description was built, the
+	 * description is rebuilt from them, so that the button objects keep working.
+	 *
+	 * @return The description of the buttons.
+	 */
+	private ButtonBarSpec getButtonBarSpec() {
+		if (buttonObjects != null && !Arrays.deepEquals(buttonObjects, specObjects)) {
+			buttonBarSpec = ButtonBarSpec.fromObjects(buttonObjects);
+			specObjects = buttonBarSpec.toObjects();
+		}
+		return buttonBarSpec;
+	}
+}
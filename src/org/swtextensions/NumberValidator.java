@@ -1,35 +1,283 @@
 package org.swtextensions;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
 import org.eclipse.swt.events.VerifyEvent;
 import org.eclipse.swt.events.VerifyListener;
 import org.eclipse.swt.widgets.Text;
 
 /**
  * A listener to validate input in a text field to ensure it is a number.
+ * <p>
+ * The proposed text is checked character by character in place, without
+ * building the new string and without parsing it. Integers, longs and signed
+ * decimals with locale-specific separators are supported, optionally restricted
+ * to a range. Since the range is checked while typing, a value is only rejected
+ * if no further input could bring it back into range. A lone sign is accepted
+ * as an intermediate state if negative values are allowed.
  */
 public class NumberValidator implements VerifyListener {
 	/**
-	 * Verifies that the text input is a valid integer.
+	 * The kinds of numbers a validator accepts.
+	 */
+	public enum Type {
+		INT, LONG, DECIMAL
+	}
+
+	private static final int START = 0;
+	private static final int SIGN = 1;
+	private static final int INTEGER = 2;
+	private static final int FRACTION = 3;
+
+	private final Type type;
+	private final long minLong;
+	private final long maxLong;
+	private final double minDecimal;
+	private final BigDecimal maxPositive;
+	private final BigDecimal maxNegative;
+	private final long maxPositiveIntegral;
+	private final long maxNegativeIntegral;
+	private final int maxFractionDigits;
+	private final char decimalSeparator;
+	private final char groupingSeparator;
+	private final char minusSign;
+
+	/**
+	 * Constructs a validator that accepts integers.
+	 */
+	public NumberValidator() {
+		this(Type.INT, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 0, -1, Locale.getDefault());
+	}
+
+	/**
+	 * Constructs a validator.
+	 *
+	 * @param type              The kind of numbers to accept.
+	 * @param minLong           The lower bound for integral numbers.
+	 * @param maxLong           The upper bound for integral numbers.
+	 * @param minDecimal        The lower bound for decimal numbers.
+	 * @param maxDecimal        The upper bound for decimal numbers.
+	 * @param maxFractionDigits The maximum number of fraction digits, or -1 for no
+	 *                          limit.
+	 * @param locale            The locale providing the separators.
+	 */
+	private NumberValidator(Type type, long minLong, long maxLong, double minDecimal, double maxDecimal,
+			int maxFractionDigits, Locale locale) {
+		if (minLong > maxLong || !(minDecimal <= maxDecimal)) {
+			throw new IllegalArgumentException();
+		}
+
+		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+		this.type = type;
+		this.minLong = minLong;
+		this.maxLong = maxLong;
+		this.minDecimal = minDecimal;
+		this.maxPositive = toExact(maxDecimal);
+		this.maxNegative = toExact(-minDecimal);
+		this.maxPositiveIntegral = floorToLong(maxPositive);
+		this.maxNegativeIntegral = floorToLong(maxNegative);
+		this.maxFractionDigits = maxFractionDigits;
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		this.groupingSeparator = symbols.getGroupingSeparator();
+		this.minusSign = symbols.getMinusSign();
+	}
+
+	/**
+	 * Creates a validator that accepts integers within the specified range.
+	 *
+	 * @param min The smallest accepted value.
+	 * @param max The largest accepted value.
+	 * @return The validator.
+	 */
+	public static NumberValidator ofInt(int min, int max) {
+		return new NumberValidator(Type.INT, min, max, 0, 0, -1, Locale.getDefault());
+	}
+
+	/**
+	 * Creates a validator that accepts longs within the specified range.
+	 *
+	 * @param min The smallest accepted value.
+	 * @param max The largest accepted value.
+	 * @return The validator.
+	 */
+	public static NumberValidator ofLong(long min, long max) {
+		return new NumberValidator(Type.LONG, min, max, 0, 0, -1, Locale.getDefault());
+	}
+
+	/**
+	 * Creates a validator that accepts decimals within the specified range,
+	 * using the decimal and grouping separators of the specified locale.
+	 *
+	 * @param locale            The locale providing the separators.
+	 * @param min               The smallest accepted value.
+	 * @param max               The largest accepted value.
+	 * @param maxFractionDigits The maximum number of fraction digits, or -1 for no
+	 *                          limit.
+	 * @return The validator.
+	 */
+	public static NumberValidator ofDecimal(Locale locale, double min, double max, int maxFractionDigits) {
+		return new NumberValidator(Type.DECIMAL, 0, 0, min, max, maxFractionDigits, locale);
+	}
+
+	/**
+	 * Returns the kind of numbers this validator accepts.
+	 *
+	 * @return The type.
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Verifies that the text input is a valid number.
 	 *
 	 * @param event The verify event.
 	 */
 	@Override
 	public void verifyText(VerifyEvent event) {
+		long start = UIInstrumentation.start();
 		Text textField = (Text) event.getSource();
-		String oldStr = textField.getText();
-		String newStr = oldStr.substring(0, event.start) + event.text + oldStr.substring(event.end);
-
-		boolean isInt = true;
-		if (!newStr.equals("")) {
-			try {
-				Integer.parseInt(newStr);
-			} catch (NumberFormatException ex) {
-				isInt = false;
+		if (!accepts(textField.getText(), event.start, event.end, event.text)) {
+			event.doit = false;
+		}
+		UIInstrumentation.end(start, textField, "NumberValidator.verifyText");
+	}
+
+	/**
+	 * Checks whether the text that results from replacing the range of the old
+	 * text with the inserted text is acceptable.
+	 *
+	 * @param oldText  The current text.
+	 * @param start    The start of the replaced range.
+	 * @param end      The end of the replaced range.
+	 * @param inserted The inserted text.
+	 * @return True if the resulting text is acceptable, false otherwise.
+	 */
+	public boolean accepts(String oldText, int start, int end, String inserted) {
+		int insertedLength = inserted.length();
+		int length = start + insertedLength + oldText.length() - end;
+		boolean decimal = type == Type.DECIMAL;
+		boolean negative = false;
+		int state = START;
+		int fractionDigits = 0;
+		long accumulated = 0;
+		BigDecimal big = null;
+
+		for (int i = 0; i < length; i++) {
+			char c;
+			if (i < start) {
+				c = oldText.charAt(i);
+			} else if (i < start + insertedLength) {
+				c = inserted.charAt(i - start);
+			} else {
+				c = oldText.charAt(i - start - insertedLength + end);
+			}
+
+			int digit = c - '0';
+			if (digit >= 0 && digit <= 9) {
+				if (state == FRACTION) {
+					fractionDigits++;
+					if (maxFractionDigits >= 0 && fractionDigits > maxFractionDigits) {
+						return false;
+					}
+				}
+				if (decimal) {
+					// Accumulate the unscaled digits exactly, switching to a BigDecimal on overflow
+					if (big == null && accumulated <= (Long.MAX_VALUE - digit) / 10) {
+						accumulated = accumulated * 10 + digit;
+					} else {
+						big = (big == null ? BigDecimal.valueOf(accumulated) : big).multiply(BigDecimal.TEN)
+								.add(BigDecimal.valueOf(digit));
+					}
+					if (state != FRACTION && exceeds(negative, accumulated, big, 0)) {
+						return false;
+					}
+				} else {
+					// Accumulate negatively to cover Long.MIN_VALUE without overflow
+					if (accumulated < Long.MIN_VALUE / 10 || accumulated * 10 < Long.MIN_VALUE + digit) {
+						return false;
+					}
+					accumulated = accumulated * 10 - digit;
+					if (negative ? accumulated < minLong : accumulated == Long.MIN_VALUE || -accumulated > maxLong) {
+						return false;
+					}
+				}
+				if (state != FRACTION) {
+					state = INTEGER;
+				}
+			} else if (state == START && (c == '-' || c == minusSign)) {
+				if (decimal ? minDecimal >= 0 : minLong >= 0) {
+					return false;
+				}
+				negative = true;
+				state = SIGN;
+			} else if (state == START && c == '+') {
+				state = SIGN;
+			} else if (decimal && state == INTEGER && c == groupingSeparator) {
+				continue;
+			} else if (decimal && state != FRACTION && c == decimalSeparator) {
+				state = FRACTION;
+			} else {
+				return false;
 			}
 		}
 
-		if (!isInt) {
-			event.doit = false;
+		if (decimal) {
+			return !exceeds(negative, accumulated, big, fractionDigits);
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the magnitude of a decimal exceeds the bound for its sign.
+	 *
+	 * @param negative Whether the decimal is negative.
+	 * @param unscaled The unscaled magnitude if it fits into a long.
+	 * @param big      The unscaled magnitude if it does not fit into a long, or
+	 *                 null.
+	 * @param scale    The number of fraction digits.
+	 * @return True if the decimal is out of range, false otherwise.
+	 */
+	private boolean exceeds(boolean negative, long unscaled, BigDecimal big, int scale) {
+		BigDecimal bound = negative ? maxNegative : maxPositive;
+		if (bound == null) {
+			return false;
+		}
+		if (big == null && scale == 0) {
+			return unscaled > (negative ? maxNegativeIntegral : maxPositiveIntegral);
+		}
+		BigDecimal magnitude = big != null ? new BigDecimal(big.unscaledValue(), scale)
+				: BigDecimal.valueOf(unscaled, scale);
+		return magnitude.compareTo(bound) > 0;
+	}
+
+	/**
+	 * Converts a bound to the decimal it was written as, e.g. 0.3 instead of the
+	 * binary approximation of 0.3.
+	 *
+	 * @param bound The bound.
+	 * @return The exact bound, or null if the bound is infinite.
+	 */
+	private static BigDecimal toExact(double bound) {
+		return Double.isInfinite(bound) ? null : BigDecimal.valueOf(bound);
+	}
+
+	/**
+	 * Rounds a bound down to a long, saturating at the limits of long.
+	 *
+	 * @param bound The exact bound, or null if the bound is infinite.
+	 * @return The largest long not greater than the bound.
+	 */
+	private static long floorToLong(BigDecimal bound) {
+		if (bound == null || bound.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) {
+			return Long.MAX_VALUE;
+		}
+		if (bound.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0) {
+			return Long.MIN_VALUE;
 		}
+		return bound.setScale(0, RoundingMode.FLOOR).longValue();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+package org.swtextensions;
+
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Resource;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * Utility object for tracking the native resources that the library creates,
+ * such as GCs, shells, images and fonts.
+ * <p>
+ * When enabled, every resource the library creates is recorded together with
+ * its allocation site until the library releases it. Resources that are still
+ * recorded when their display is disposed are reported as leaks through the
+ * system logger {@code org.swtextensions.ResourceTracker}. When disabled,
+ * tracking a resource costs a single volatile read. The tracker can also be
+ * enabled with the system property {@value #ENABLED_PROPERTY}.
+ */
+public final class ResourceTracker {
+	public static final String ENABLED_PROPERTY = "swtextensions.resourceTracking";
+
+	private static final System.Logger logger = System.getLogger(ResourceTracker.class.getName());
+	private static final Map<Object, Allocation> allocations = new IdentityHashMap<>();
+	private static final Set<Display> hookedDisplays = Collections.newSetFromMap(new WeakHashMap<>());
+	private static final AtomicLong leaks = new AtomicLong();
+	private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	// Private constructor to prevent instantiation of this class.
+	private ResourceTracker() {
+	}
+
+	/**
+	 * Returns whether resources are tracked.
+	 *
+	 * @return True if the tracker is enabled, false otherwise.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether resources are tracked. Disabling the tracker forgets all
+	 * tracked resources.
+	 *
+	 * @param enabled True to enable the tracker, false to disable it.
+	 */
+	public static void setEnabled(boolean enabled) {
+		synchronized (allocations) {
+			ResourceTracker.enabled = enabled;
+			if (!enabled) {
+				allocations.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of tracked resources per type.
+	 *
+	 * @return A sorted map from resource types to counts.
+	 */
+	public static Map<String, Integer> getLiveCounts() {
+		Map<String, Integer> counts = new TreeMap<>();
+		synchronized (allocations) {
+			for (Allocation allocation : allocations.values()) {
+				counts.merge(allocation.type, 1, Integer::sum);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Describes all tracked resources with their allocation sites.
+	 *
+	 * @return The descriptions of the tracked resources.
+	 */
+	public static List<String> getLiveResources() {
+		List<Allocation> snapshot;
+		synchronized (allocations) {
+			snapshot = new ArrayList<>(allocations.values());
+		}
+		List<String> descriptions = new ArrayList<>(snapshot.size());
+		for (Allocation allocation : snapshot) {
+			descriptions.add(allocation.describe());
+		}
+		return descriptions;
+	}
+
+	/**
+	 * Returns the number of resources reported as leaked so far.
+	 *
+	 * @return The number of leaks.
+	 */
+	public static long getLeakCount() {
+		return leaks.get();
+	}
+
+	/**
+	 * Tracks a graphics resource created by the library until it is untracked.
+	 *
+	 * @param <T>      The type of the resource.
+	 * @param resource The new resource.
+	 * @return The resource.
+	 */
+	static <T extends Resource> T track(T resource) {
+		if (enabled) {
+			register(resource, resource.getDevice());
+		}
+		return resource;
+	}
+
+	/**
+	 * Tracks a widget created by the library until it is disposed.
+	 *
+	 * @param <T>    The type of the widget.
+	 * @param widget The new widget.
+	 * @return The widget.
+	 */
+	static <T extends Widget> T track(T widget) {
+		if (enabled) {
+			register(widget, widget.getDisplay());
+			widget.addListener(SWT.Dispose, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					untrack(widget);
+				}
+			});
+		}
+		return widget;
+	}
+
+	/**
+	 * Stops tracking a resource that the library releases.
+	 *
+	 * @param resource The released resource.
+	 */
+	static void untrack(Object resource) {
+		if (enabled) {
+			synchronized (allocations) {
+				allocations.remove(resource);
+			}
+		}
+	}
+
+	/**
+	 * Records the allocation of a resource and hooks its display to report leaks
+	 * when the display is disposed.
+	 *
+	 * @param resource The resource.
+	 * @param device   The device of the resource.
+	 */
+	private static void register(Object resource, Device device) {
+		Display display = device instanceof Display ? (Display) device : null;
+		Allocation allocation = new Allocation(resource.getClass().getSimpleName(), display);
+		boolean hook;
+		synchronized (allocations) {
+			if (!enabled) {
+				return;
+			}
+			allocations.put(resource, allocation);
+			hook = display != null && hookedDisplays.add(display);
+		}
+		if (hook) {
+			display.disposeExec(() -> reportLeaks(display));
+		}
+	}
+
+	/**
+	 * Reports the resources of a disposed display that are still tracked.
+	 *
+	 * @param display The disposed display.
+	 */
+	private static void reportLeaks(Display display) {
+		List<Allocation> leaked = new ArrayList<>();
+		synchronized (allocations) {
+			hookedDisplays.remove(display);
+			Iterator<Allocation> it = allocations.values().iterator();
+			while (it.hasNext()) {
+				Allocation allocation = it.next();
+				if (allocation.display == display) {
+					leaked.add(allocation);
+					it.remove();
+				}
+			}
+		}
+		if (leaked.isEmpty()) {
+			return;
+		}
+
+		leaks.addAndGet(leaked.size());
+		if (logger.isLoggable(Level.WARNING)) {
+			StringBuilder message = new StringBuilder();
+			message.append(leaked.size()).append(" native resources were not released before the display was disposed:");
+			for (Allocation allocation : leaked) {
+				message.append(System.lineSeparator()).append(allocation.describe());
+			}
+			logger.log(Level.WARNING, message.toString());
+		}
+	}
+
+	/**
+	 * The allocation of a tracked resource.
+	 */
+	private static final class Allocation {
+		private final String type;
+		private final Display display;
+		private final String thread;
+		private final Throwable site;
+
+		/**
+		 * Records an allocation at the current call site.
+		 *
+		 * @param type    The type of the resource.
+		 * @param display The display of the resource, or null.
+		 */
+		private Allocation(String type, Display display) {
+			this.type = type;
+			this.display = display;
+			this.thread = Thread.currentThread().getName();
+			this.site = new Throwable();
+		}
+
+		/**
+		 * Describes the resource and the stack of its allocation, omitting the
+		 * frames of the tracker.
+		 *
+		 * @return The description.
+		 */
+		private String describe() {
+			StringBuilder description = new StringBuilder();
+			description.append(type).append(" allocated on thread ").append(thread);
+			for (StackTraceElement element : site.getStackTrace()) {
+				if (!element.getClassName().startsWith(ResourceTracker.class.getName())) {
+					description.append(System.lineSeparator()).append("\tat ").append(element);
+				}
+			}
+			return description.toString();
+		}
+	}
+}
@@ -1,29 +1,86 @@
 package org.swtextensions;
 
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StackLayout;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
 
 /**
  * A custom composite widget representing a sidebar with a table of items that
  * can switch between different panes using a stack layout.
+ * <p>
+ * In virtual mode, the table items are only materialized when they become
+ * visible, and the table scrolls once it shows the configured number of
+ * visible items instead of growing with every item.
+ * <p>
+ * Panes added with a factory are created when they are shown for the first
+ * time. If a maximum number of live panes is set, the least recently shown
+ * panes created by a factory are disposed and re-created on demand.
+ * <p>
+ * If SWT.SEARCH is set, a filter field narrows the items to those whose labels
+ * start with the entered text. Pane indexes always refer to the unfiltered
+ * items.
+ * <p>
+ * Items can show icons, which are loaded through the {@link ImageCache} of the
+ * display, so that windows showing the same icons share one image each. The
+ * icons are released when the sidebar is disposed.
+ * <p>
+ * Between {@link #beginUpdate()} and {@link #endUpdate()}, redrawing is
+ * suspended and the table is sized and selected only once at the end, so that
+ * adding many panes does not re-select and re-layout after each pane.
  */
 public class SideBar extends Composite {
+	private static final int DEFAULT_VISIBLE_ITEM_COUNT = 20;
+
 	private Label sideAccLabel;
+	private Text filterField;
 	private Table table;
 	private Composite viewport;
 	private List<Composite> panes;
+	private Map<Composite, Integer> paneIndexes;
+	private List<Function<Composite, Composite>> factories;
+	private LinkedHashSet<Integer> shownPanes;
+	private int maxLivePanes;
+	private List<String> labels;
+	private List<URL> icons;
+	private List<Image> images;
+	private boolean virtual;
+	private int visibleItemCount;
+	private IntFunction<String> labelProvider;
+	private IntFunction<Composite> paneProvider;
+	private int itemCount;
+	private String filter;
+	private int[] rows;
+	private String[] sortedLabels;
+	private int[] sortedIndexes;
+	private int updateDepth;
+	private boolean itemsAdded;
 
 	/**
 	 * Constructs a sidebar composite widget.
@@ -31,7 +88,21 @@ public class SideBar extends Composite {
 	 * @param parent The parent composite to which this sidebar belongs.
 	 */
 	public SideBar(Composite parent) {
+		this(parent, SWT.NONE);
+	}
+
+	/**
+	 * Constructs a sidebar composite widget with the specified style.
+	 *
+	 * @param parent The parent composite to which this sidebar belongs.
+	 * @param style  The style of the sidebar. If SWT.VIRTUAL is set, the sidebar
+	 *               operates in virtual mode. If SWT.SEARCH is set, a filter field
+	 *               is shown above the items.
+	 */
+	public SideBar(Composite parent, int style) {
 		super(parent, SWT.NONE);
+		virtual = (style & SWT.VIRTUAL) != 0;
+		visibleItemCount = virtual ? DEFAULT_VISIBLE_ITEM_COUNT : Integer.MAX_VALUE;
 		setLayout(new GridLayout());
 
 		sideAccLabel = new Label(this, SWT.NONE);
@@ -41,21 +112,57 @@ public class SideBar extends Composite {
 		sideAccLabel.setText("Sidebar");
 		sideAccLabel.setVisible(false);
 
-		table = new Table(this, SWT.BORDER | SWT.FULL_SELECTION | SWT.SINGLE | SWT.V_SCROLL);
+		if ((style & SWT.SEARCH) != 0) {
+			filterField = new Text(this, SWT.BORDER | SWT.SEARCH | SWT.ICON_CANCEL | SWT.ICON_SEARCH);
+			filterField.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+			filterField.addModifyListener(new ModifyListener() {
+				@Override
+				public void modifyText(ModifyEvent e) {
+					setFilter(filterField.getText());
+				}
+			});
+		}
+
+		table = new Table(this,
+				SWT.BORDER | SWT.FULL_SELECTION | SWT.SINGLE | SWT.V_SCROLL | (virtual ? SWT.VIRTUAL : SWT.NONE));
 		table.setHeaderVisible(true);
 		table.setLayoutData(new GridData(SWT.LEFT, SWT.TOP, true, true));
 		table.setLinesVisible(true);
 		table.addSelectionListener(new SelectionAdapter() {
 			@Override
 			public void widgetSelected(SelectionEvent e) {
-				changePane(table.getSelectionIndex());
+				int row = table.getSelectionIndex();
+				if (row >= 0) {
+					changePane(getIndex(row));
+				}
 			}
 		});
+		if (virtual) {
+			table.addListener(SWT.SetData, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					updateItem((TableItem) e.item, getIndex(e.index));
+				}
+			});
+		}
 		TableColumn col = new TableColumn(table, SWT.LEFT);
 		col.setText(sideAccLabel.getText());
 		col.setWidth(100);
 
 		panes = new ArrayList<>();
+		paneIndexes = new IdentityHashMap<>();
+		factories = new ArrayList<>();
+		shownPanes = new LinkedHashSet<>();
+		maxLivePanes = Integer.MAX_VALUE;
+		labels = new ArrayList<>();
+		icons = new ArrayList<>();
+		images = new ArrayList<>();
+		addListener(SWT.Dispose, new Listener() {
+			@Override
+			public void handleEvent(Event e) {
+				releaseImages();
+			}
+		});
 	}
 
 	/**
@@ -63,16 +170,147 @@ public class SideBar extends Composite {
 	 *
 	 * @param text The text label to display in the sidebar's table.
 	 * @param pane The composite pane to be added and displayed when selected.
+	 * @throws IllegalStateException If the items are supplied by a label provider.
 	 */
 	public void addPane(String text, Composite pane) {
-		TableItem item = new TableItem(table, SWT.NONE);
-		item.setText(text);
-
-		GridData gridData = (GridData) table.getLayoutData();
-		gridData.heightHint = table.getItemCount() * table.getItemHeight();
-		table.setSelection(table.getItemCount() - 1);
+		addPane(text, null, pane);
+	}
 
+	/**
+	 * Adds a pane to the sidebar with the specified text label and icon.
+	 *
+	 * @param text The text label to display in the sidebar's table.
+	 * @param icon The URL of the icon to display next to the label, or null.
+	 * @param pane The composite pane to be added and displayed when selected.
+	 * @throws IllegalStateException If the items are supplied by a label provider.
+	 */
+	public void addPane(String text, URL icon, Composite pane) {
+		checkItemMode();
+		if (pane != null) {
+			mapPane(pane, panes.size());
+		}
 		panes.add(pane);
+		factories.add(null);
+		addItem(text, icon);
+	}
+
+	/**
+	 * Adds a pane to the sidebar with the specified text label. The pane is
+	 * created by the factory when it is shown for the first time.
+	 *
+	 * @param text    The text label to display in the sidebar's table.
+	 * @param factory The function creating the pane within the given viewport.
+	 * @throws IllegalStateException If the items are supplied by a label provider.
+	 */
+	public void addPane(String text, Function<Composite, Composite> factory) {
+		addPane(text, null, factory);
+	}
+
+	/**
+	 * Adds a pane to the sidebar with the specified text label and icon. The pane
+	 * is created by the factory when it is shown for the first time.
+	 *
+	 * @param text    The text label to display in the sidebar's table.
+	 * @param icon    The URL of the icon to display next to the label, or null.
+	 * @param factory The function creating the pane within the given viewport.
+	 * @throws IllegalStateException If the items are supplied by a label provider.
+	 */
+	public void addPane(String text, URL icon, Function<Composite, Composite> factory) {
+		checkItemMode();
+		panes.add(null);
+		factories.add(factory);
+		addItem(text, icon);
+	}
+
+	/**
+	 * Adds several panes to the sidebar in the iteration order of the map, sizing
+	 * and selecting the table only once.
+	 *
+	 * @param panes The map from text labels to the composite panes to be added.
+	 * @throws IllegalStateException If the items are supplied by a label provider.
+	 */
+	public void addPanes(Map<String, Composite> panes) {
+		beginUpdate();
+		try {
+			for (Map.Entry<String, Composite> entry : panes.entrySet()) {
+				addPane(entry.getKey(), entry.getValue());
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	/**
+	 * Starts a batch of changes. Until the matching call of {@link #endUpdate()},
+	 * redrawing is suspended and added items are neither sized nor selected.
+	 * Batches can be nested.
+	 */
+	public void beginUpdate() {
+		if (updateDepth++ == 0) {
+			table.setRedraw(false);
+			setLayoutDeferred(true);
+		}
+	}
+
+	/**
+	 * Ends a batch of changes. When the outermost batch ends, the table is sized
+	 * and the last added item is selected once, and redrawing is resumed.
+	 *
+	 * @throws IllegalStateException If no batch has been started.
+	 */
+	public void endUpdate() {
+		if (updateDepth == 0) {
+			throw new IllegalStateException();
+		}
+		if (--updateDepth > 0) {
+			return;
+		}
+
+		try {
+			if (itemsAdded) {
+				itemsAdded = false;
+				showAddedItems();
+			}
+		} finally {
+			setLayoutDeferred(false);
+			table.setRedraw(true);
+		}
+	}
+
+	/**
+	 * Replaces the items of a virtual sidebar with items supplied on demand. Only
+	 * the labels of visible items are requested, and a pane is requested when its
+	 * item is selected. Afterwards, no panes can be added.
+	 *
+	 * @param count         The number of items.
+	 * @param labelProvider The function returning the label of an item index.
+	 * @param paneProvider  The function returning the pane of an item index.
+	 * @throws IllegalStateException If the sidebar is not in virtual mode.
+	 */
+	public void setInput(int count, IntFunction<String> labelProvider, IntFunction<Composite> paneProvider) {
+		if (!virtual) {
+			throw new IllegalStateException();
+		}
+
+		this.labelProvider = labelProvider;
+		this.paneProvider = paneProvider;
+		panes.clear();
+		paneIndexes.clear();
+		factories.clear();
+		shownPanes.clear();
+		labels.clear();
+		releaseImages();
+		icons.clear();
+		images.clear();
+		itemCount = count;
+		sortedLabels = null;
+		table.clearAll();
+		if (filter != null) {
+			applyFilter();
+		} else {
+			table.setItemCount(count);
+		}
+		updateHeightHint();
 	}
 
 	/**
@@ -82,9 +320,9 @@ public class SideBar extends Composite {
 	 * @param index The index of the pane to display.
 	 */
 	public void changePane(int index) {
-		if (index >= 0 && index < table.getItemCount()) {
-			setTopControl(panes.get(index));
-			table.setSelection(index);
+		if (index >= 0 && index < itemCount) {
+			setTopControl(paneProvider != null ? getProvidedPane(index) : getPane(index));
+			selectRow(getRow(index));
 		}
 	}
 
@@ -95,14 +333,62 @@ public class SideBar extends Composite {
 	 */
 	public void changePane(Composite pane) {
 		setTopControl(pane);
-		for (int i = 0; i < panes.size(); i++) {
-			if (panes.get(i) == pane) {
-				table.setSelection(i);
-				break;
-			}
+		Integer index = paneIndexes.get(pane);
+		if (index != null) {
+			selectRow(getRow(index));
 		}
 	}
 
+	/**
+	 * Returns the current filter text.
+	 *
+	 * @return The filter text, or null if no filter is applied.
+	 */
+	public String getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Narrows the items to those whose labels start with the specified text,
+	 * ignoring case. Only the rows whose items change are updated.
+	 *
+	 * @param text The filter text, or null or an empty string to show all items.
+	 */
+	public void setFilter(String text) {
+		String newFilter = text == null || text.isEmpty() ? null : text.toLowerCase(Locale.ROOT);
+		if (newFilter == null ? filter == null : newFilter.equals(filter)) {
+			return;
+		}
+
+		long start = UIInstrumentation.start();
+		filter = newFilter;
+		if (filterField != null && !filterField.getText().equalsIgnoreCase(text == null ? "" : text)) {
+			filterField.setText(text == null ? "" : text);
+		}
+		applyFilter();
+		UIInstrumentation.end(start, this, "SideBar.setFilter");
+	}
+
+	/**
+	 * Returns the maximum number of live panes created by factories.
+	 *
+	 * @return The maximum number of live panes.
+	 */
+	public int getMaxLivePanes() {
+		return maxLivePanes;
+	}
+
+	/**
+	 * Sets the maximum number of live panes created by factories. If more panes
+	 * are live, the least recently shown ones are disposed.
+	 *
+	 * @param maxLivePanes The maximum number of live panes.
+	 */
+	public void setMaxLivePanes(int maxLivePanes) {
+		this.maxLivePanes = Math.max(1, maxLivePanes);
+		evictPanes();
+	}
+
 	/**
 	 * Retrieves the table widget used in the sidebar.
 	 *
@@ -119,11 +405,38 @@ public class SideBar extends Composite {
 	 * @param text  The text to set for the specified pane.
 	 */
 	public void setPaneText(int index, String text) {
-		if (index >= 0 && index < table.getItemCount()) {
-			table.getItem(index).setText(text);
+		if (index >= 0 && index < itemCount) {
+			// With a label provider, the provider remains the source of truth
+			if (labelProvider == null) {
+				labels.set(index, text);
+			}
+			sortedLabels = null;
+			if (filter != null) {
+				// Only refreshes rows that now show a different item
+				applyFilter();
+			}
+
+			int row = getRow(index);
+			if (row >= 0) {
+				if (virtual) {
+					table.clear(row);
+				} else {
+					updateItem(table.getItem(row), index);
+				}
+			}
 		}
 	}
 
+	/**
+	 * Sets the number of items the table shows before it starts scrolling.
+	 *
+	 * @param visibleItemCount The number of visible items.
+	 */
+	public void setVisibleItemCount(int visibleItemCount) {
+		this.visibleItemCount = Math.max(1, visibleItemCount);
+		updateHeightHint();
+	}
+
 	/**
 	 * Sets the text label for the sidebar.
 	 *
@@ -146,13 +459,365 @@ public class SideBar extends Composite {
 	}
 
 	/**
-	 * Sets the top control (pane) to be displayed in the viewport.
+	 * Ensures that items can be added, which is not possible once the items are
+	 * supplied by a label provider.
+	 *
+	 * @throws IllegalStateException If the items are supplied by a label provider.
+	 */
+	private void checkItemMode() {
+		if (labelProvider != null) {
+			throw new IllegalStateException();
+		}
+	}
+
+	/**
+	 * Adds an item with the specified text label to the table and selects it.
+	 *
+	 * @param text The text label to display in the sidebar's table.
+	 * @param icon The URL of the icon of the item, or null.
+	 */
+	private void addItem(String text, URL icon) {
+		labels.add(text);
+		icons.add(icon);
+		images.add(null);
+		itemCount = labels.size();
+		sortedLabels = null;
+		if (filter == null && !virtual) {
+			updateItem(new TableItem(table, SWT.NONE), itemCount - 1);
+		}
+
+		if (updateDepth > 0) {
+			itemsAdded = true;
+		} else {
+			showAddedItems();
+		}
+	}
+
+	/**
+	 * Shows the added items in a filtered or virtual table, sizes the table and
+	 * selects the last item.
+	 */
+	private void showAddedItems() {
+		if (filter != null) {
+			applyFilter();
+		} else if (virtual) {
+			table.setItemCount(itemCount);
+		}
+
+		updateHeightHint();
+		selectRow(getRow(itemCount - 1));
+	}
+
+	/**
+	 * Computes the rows matching the current filter and updates the rows of the
+	 * table whose items changed.
+	 */
+	private void applyFilter() {
+		int[] oldRows = rows;
+		int oldCount = table.getItemCount();
+		rows = filter != null ? findMatches(filter) : null;
+		int newCount = rows != null ? rows.length : itemCount;
+
+		table.setRedraw(false);
+		try {
+			if (virtual) {
+				table.setItemCount(newCount);
+				for (int row = 0; row < Math.min(oldCount, newCount); row++) {
+					if (getIndex(oldRows, row) != getIndex(row)) {
+						table.clear(row);
+					}
+				}
+			} else {
+				for (int row = 0; row < Math.min(oldCount, newCount); row++) {
+					if (getIndex(oldRows, row) != getIndex(row)) {
+						updateItem(table.getItem(row), getIndex(row));
+					}
+				}
+				if (oldCount > newCount) {
+					table.remove(newCount, oldCount - 1);
+				}
+				for (int row = oldCount; row < newCount; row++) {
+					updateItem(new TableItem(table, SWT.NONE), getIndex(row));
+				}
+			}
+			updateHeightHint();
+
+			// Keep the visible pane selected if its item is still shown
+			Control topControl = viewport != null ? ((StackLayout) viewport.getLayout()).topControl : null;
+			Integer index = topControl != null ? paneIndexes.get(topControl) : null;
+			selectRow(index != null ? getRow(index) : -1);
+		} finally {
+			table.setRedraw(true);
+		}
+	}
+
+	/**
+	 * Finds the indexes of all items whose labels start with the specified
+	 * prefix, using a sorted index over the lowercase labels.
+	 *
+	 * @param prefix The lowercase prefix.
+	 * @return The ascending indexes of the matching items.
+	 */
+	private int[] findMatches(String prefix) {
+		if (sortedLabels == null) {
+			Integer[] order = new Integer[itemCount];
+			String[] keys = new String[itemCount];
+			for (int i = 0; i < itemCount; i++) {
+				order[i] = i;
+				keys[i] = getLabel(i).toLowerCase(Locale.ROOT);
+			}
+			Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+
+			sortedLabels = new String[itemCount];
+			sortedIndexes = new int[itemCount];
+			for (int i = 0; i < itemCount; i++) {
+				sortedLabels[i] = keys[order[i]];
+				sortedIndexes[i] = order[i];
+			}
+		}
+
+		int from = Arrays.binarySearch(sortedLabels, prefix);
+		if (from < 0) {
+			from = -from - 1;
+		}
+		int to = from;
+		while (to < sortedLabels.length && sortedLabels[to].startsWith(prefix)) {
+			to++;
+		}
+
+		int[] matches = Arrays.copyOfRange(sortedIndexes, from, to);
+		Arrays.sort(matches);
+		return matches;
+	}
+
+	/**
+	 * Maps a table row to the index of its item.
+	 *
+	 * @param row The table row.
+	 * @return The index of the item shown in the row.
+	 */
+	private int getIndex(int row) {
+		return getIndex(rows, row);
+	}
+
+	/**
+	 * Maps a table row to the index of its item using the specified rows.
+	 *
+	 * @param rows The indexes of the visible items, or null if all items are
+	 *             visible.
+	 * @param row  The table row.
+	 * @return The index of the item shown in the row.
+	 */
+	private static int getIndex(int[] rows, int row) {
+		return rows != null ? rows[row] : row;
+	}
+
+	/**
+	 * Maps the index of an item to its table row.
+	 *
+	 * @param index The index of the item.
+	 * @return The table row of the item, or -1 if it is filtered out.
+	 */
+	private int getRow(int index) {
+		if (rows == null) {
+			return index;
+		}
+		int row = Arrays.binarySearch(rows, index);
+		return row >= 0 ? row : -1;
+	}
+
+	/**
+	 * Selects the specified table row.
+	 *
+	 * @param row The table row, or -1 to clear the selection.
+	 */
+	private void selectRow(int row) {
+		if (row >= 0) {
+			table.setSelection(row);
+		} else {
+			table.deselectAll();
+		}
+	}
+
+	/**
+	 * Maps a pane to its index unless it is mapped already, so that a pane added
+	 * under several labels keeps its first index. The mapping is removed when
+	 * the pane is disposed.
+	 *
+	 * @param pane  The pane.
+	 * @param index The index of the pane.
+	 */
+	private void mapPane(Composite pane, int index) {
+		if (paneIndexes.putIfAbsent(pane, index) == null) {
+			pane.addListener(SWT.Dispose, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					paneIndexes.remove(pane);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Retrieves the pane of the specified index from the pane provider.
+	 *
+	 * @param index The index of the pane.
+	 * @return The pane at the specified index.
+	 */
+	private Composite getProvidedPane(int index) {
+		Composite pane = paneProvider.apply(index);
+		if (pane != null) {
+			mapPane(pane, index);
+		}
+		return pane;
+	}
+
+	/**
+	 * Retrieves the pane at the specified index, creating it with its factory if
+	 * necessary.
+	 *
+	 * @param index The index of the pane.
+	 * @return The pane at the specified index.
+	 */
+	private Composite getPane(int index) {
+		Composite pane = panes.get(index);
+		Function<Composite, Composite> factory = factories.get(index);
+		if (factory != null) {
+			if (pane == null || pane.isDisposed()) {
+				pane = factory.apply(viewport);
+				panes.set(index, pane);
+				mapPane(pane, index);
+			}
+			shownPanes.remove(index);
+			shownPanes.add(index);
+		}
+		return pane;
+	}
+
+	/**
+	 * Disposes the least recently shown panes created by factories until the
+	 * maximum number of live panes is reached. The visible pane is never
+	 * disposed.
+	 */
+	private void evictPanes() {
+		Control topControl = viewport != null ? ((StackLayout) viewport.getLayout()).topControl : null;
+		Iterator<Integer> it = shownPanes.iterator();
+		int live = shownPanes.size();
+		while (live > maxLivePanes && it.hasNext()) {
+			int index = it.next();
+			Composite pane = panes.get(index);
+			if (pane != topControl) {
+				it.remove();
+				live--;
+				panes.set(index, null);
+				paneIndexes.remove(pane);
+				if (pane != null && !pane.isDisposed()) {
+					pane.dispose();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the label of an item.
+	 *
+	 * @param index The index of the item.
+	 * @return The label of the item.
+	 */
+	private String getLabel(int index) {
+		if (labelProvider != null) {
+			return labelProvider.apply(index);
+		}
+		return index < labels.size() ? labels.get(index) : "";
+	}
+
+	/**
+	 * Shows the label and icon of an item in a table item.
+	 *
+	 * @param item  The table item.
+	 * @param index The index of the item.
+	 */
+	private void updateItem(TableItem item, int index) {
+		item.setText(getLabel(index));
+		Image image = getImage(index);
+		if (image != null || item.getImage() != null) {
+			item.setImage(image);
+		}
+	}
+
+	/**
+	 * Retrieves the icon of an item, acquiring it from the image cache when it
+	 * is shown for the first time.
+	 *
+	 * @param index The index of the item.
+	 * @return The icon of the item, or null if it has none.
+	 */
+	private Image getImage(int index) {
+		if (index >= icons.size() || icons.get(index) == null) {
+			return null;
+		}
+		Image image = images.get(index);
+		if (image == null) {
+			image = ImageCache.get(getDisplay()).acquire(icons.get(index));
+			images.set(index, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Releases all acquired icons.
+	 */
+	private void releaseImages() {
+		ImageCache cache = null;
+		for (int i = 0; i < images.size(); i++) {
+			Image image = images.get(i);
+			if (image != null) {
+				if (cache == null) {
+					cache = ImageCache.get(getDisplay());
+				}
+				cache.release(image);
+				images.set(i, null);
+			}
+		}
+	}
+
+	/**
+	 * Sizes the table to its items, limited to the visible item count.
+	 */
+	private void updateHeightHint() {
+		GridData gridData = (GridData) table.getLayoutData();
+		gridData.heightHint = Math.min(table.getItemCount(), visibleItemCount) * table.getItemHeight();
+	}
+
+	/**
+	 * Sets the top control (pane) to be displayed in the viewport. Only the
+	 * viewport and the panes whose visibility changes are laid out, not the
+	 * whole tree below the viewport.
 	 *
 	 * @param pane The composite pane to display as the top control.
 	 */
 	private void setTopControl(Composite pane) {
+		long start = UIInstrumentation.start();
 		StackLayout stackLayout = (StackLayout) viewport.getLayout();
+		Control previous = stackLayout.topControl;
+		if (previous == pane) {
+			UIInstrumentation.end(start, this, "SideBar.setTopControl");
+			return;
+		}
+
 		stackLayout.topControl = pane;
-		viewport.layout();
+		Control[] changed;
+		if (previous == null || previous.isDisposed()) {
+			changed = pane != null ? new Control[] { pane } : new Control[0];
+		} else {
+			changed = pane != null ? new Control[] { previous, pane } : new Control[] { previous };
+		}
+		if (changed.length > 0) {
+			viewport.layout(changed, updateDepth > 0 ? SWT.DEFER : SWT.NONE);
+		} else {
+			viewport.layout();
+		}
+		evictPanes();
+		UIInstrumentation.end(start, this, "SideBar.setTopControl");
 	}
 }
\ No newline at end of file
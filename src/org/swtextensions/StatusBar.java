@@ -1,17 +1,112 @@
 package org.swtextensions;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Text;
 
 /**
  * A custom composite widget representing a status bar with multiple panels for displaying
  * textual information.
+ * <p>
+ * Panel texts can be posted from any thread. Posted texts are coalesced per
+ * panel, so only the latest text of each panel is shown, and all pending panels
+ * are updated in one pass on the UI thread, at most at the configured rate.
+ * <p>
+ * In owner-drawn mode, all panels are painted on a single canvas instead of
+ * using one native text widget per panel, and a text change only redraws the
+ * bounds of the affected panel.
+ * <p>
+ * Panels can be added and removed at any time. The width of each panel follows
+ * its width policy and is cached, so a text change only lays out the status bar
+ * again if a panel sized to its content actually changes its width.
+ * <p>
+ * Texts that do not fit into their panel can be ellipsized at the start, in the
+ * middle or at the end. The text is fitted by binary search over the widths of
+ * its prefixes, which are computed once per text from the character widths
+ * cached by {@link Dimension}, and only when the text or the panel width
+ * changes.
  */
 public class StatusBar extends Composite {
-	private Text[] panels;
+	/**
+	 * The policies that determine the width of a panel.
+	 */
+	public enum WidthPolicy {
+		/**
+		 * A fixed width in pixels.
+		 */
+		FIXED,
+		/**
+		 * The width of a number of average characters of the font.
+		 */
+		CHARS,
+		/**
+		 * An equal share of the width not taken by the other panels.
+		 */
+		FILL,
+		/**
+		 * The width of the panel's text.
+		 */
+		CONTENT
+	}
+
+	/**
+	 * The positions at which a text that does not fit into its panel is
+	 * shortened.
+	 */
+	public enum Ellipsis {
+		/**
+		 * The text is clipped.
+		 */
+		NONE,
+		/**
+		 * The start of the text is replaced with an ellipsis.
+		 */
+		START,
+		/**
+		 * The middle of the text is replaced with an ellipsis.
+		 */
+		MIDDLE,
+		/**
+		 * The end of the text is replaced with an ellipsis.
+		 */
+		END
+	}
+
+	private static final int DEFAULT_UPDATE_RATE = 30;
+	private static final int MARGIN = 3;
+	private static final int SPACING = 3;
+	private static final int PADDING = 3;
+	private static final String ELLIPSIS = "\u2026";
+
+	private List<Panel> panels;
+	private Canvas canvas;
+	private final Display display;
+	private final Object pendingLock = new Object();
+	private Map<Integer, String> pendingTexts = new LinkedHashMap<>();
+	private final AtomicLong droppedUpdates = new AtomicLong();
+	private final AtomicLong flushes = new AtomicLong();
+	private final Runnable flushRunnable = this::flushPanelTexts;
+	private volatile long flushIntervalNanos = TimeUnit.SECONDS.toNanos(1) / DEFAULT_UPDATE_RATE;
+	private boolean flushScheduled;
+	private long lastFlushNanos;
 
 	/**
 	 * Constructs a status bar with the specified number of panels.
@@ -21,24 +116,176 @@ public class StatusBar extends Composite {
 	 *              If count is less than or equal to 0, a single panel is created.
 	 */
 	public StatusBar(Composite parent, int count) {
+		this(parent, count, false);
+	}
+
+	/**
+	 * Constructs a status bar with the specified number of panels.
+	 *
+	 * @param parent     The parent composite to which this status bar belongs.
+	 * @param count      The number of panels to create in the status bar.
+	 *                   If count is less than or equal to 0, a single panel is created.
+	 * @param ownerDrawn True to paint all panels on a single canvas, false to use
+	 *                   a native text widget per panel.
+	 */
+	public StatusBar(Composite parent, int count, boolean ownerDrawn) {
 		super(parent, SWT.BORDER);
+		display = parent.getDisplay();
 
 		if (count <= 0) {
 			count = 1;
 		}
 
 		GridLayout gridLayout = new GridLayout();
-		gridLayout.horizontalSpacing = 3;
-		gridLayout.makeColumnsEqualWidth = true;
-		gridLayout.marginHeight = 3;
-		gridLayout.marginWidth = 3;
-		gridLayout.numColumns = count;
+		if (ownerDrawn) {
+			gridLayout.marginHeight = 0;
+			gridLayout.marginWidth = 0;
+		} else {
+			gridLayout.horizontalSpacing = SPACING;
+			gridLayout.marginHeight = MARGIN;
+			gridLayout.marginWidth = MARGIN;
+			gridLayout.numColumns = count;
+		}
 		setLayout(gridLayout);
 
-		panels = new Text[count];
+		if (ownerDrawn) {
+			canvas = new Canvas(this, SWT.DOUBLE_BUFFERED);
+			GridData gridData = new GridData(SWT.FILL, SWT.CENTER, true, false);
+			gridData.heightHint = Dimension.getTextSize(canvas).y + 2 * (MARGIN + PADDING);
+			canvas.setLayoutData(gridData);
+			canvas.addListener(SWT.Paint, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					paintPanels(e.gc, new Rectangle(e.x, e.y, e.width, e.height));
+				}
+			});
+			canvas.addListener(SWT.Resize, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					layoutPanels(false);
+					canvas.redraw();
+				}
+			});
+		}
+
+		panels = new ArrayList<>(count);
 		for (int i = 0; i < count; i++) {
-			panels[i] = new Text(this, SWT.BORDER | SWT.CENTER | SWT.NO_SCROLL | SWT.READ_ONLY | SWT.SINGLE);
-			panels[i].setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+			panels.add(createPanel(WidthPolicy.FILL, 0));
+		}
+	}
+
+	/**
+	 * Adds a panel that shares the free width with the other filling panels.
+	 *
+	 * @return The index of the new panel.
+	 */
+	public int addPanel() {
+		return addPanel(WidthPolicy.FILL, 0);
+	}
+
+	/**
+	 * Adds a panel with the specified width policy after the existing panels.
+	 *
+	 * @param policy The width policy of the panel.
+	 * @param width  The width in pixels for WidthPolicy.FIXED, the number of
+	 *               characters for WidthPolicy.CHARS, ignored otherwise.
+	 * @return The index of the new panel.
+	 */
+	public int addPanel(WidthPolicy policy, int width) {
+		checkWidth(policy, width);
+		Panel panel = createPanel(policy, width);
+		panels.add(panel);
+		if (panel.widget != null) {
+			((GridLayout) getLayout()).numColumns = panels.size();
+			layout(new Control[] { panel.widget });
+		} else {
+			layoutPanels(true);
+		}
+		return panels.size() - 1;
+	}
+
+	/**
+	 * Removes the panel at the specified index. The indexes of the following
+	 * panels, including those of posted texts, move down by one.
+	 *
+	 * @param index The index of the panel to remove.
+	 */
+	public void removePanel(int index) {
+		if (index < 0 || index >= panels.size()) {
+			return;
+		}
+
+		synchronized (pendingLock) {
+			Map<Integer, String> texts = new LinkedHashMap<>();
+			for (Map.Entry<Integer, String> entry : pendingTexts.entrySet()) {
+				int key = entry.getKey();
+				if (key != index) {
+					texts.put(key > index ? key - 1 : key, entry.getValue());
+				}
+			}
+			pendingTexts = texts;
+		}
+
+		Panel panel = panels.remove(index);
+		if (panel.widget != null) {
+			panel.widget.dispose();
+			((GridLayout) getLayout()).numColumns = panels.size();
+			layout(false);
+		} else {
+			Rectangle bounds = panel.bounds;
+			canvas.redraw(bounds.x, bounds.y, bounds.width, bounds.height, false);
+			layoutPanels(true);
+		}
+	}
+
+	/**
+	 * Returns the number of panels.
+	 *
+	 * @return The number of panels.
+	 */
+	public int getPanelCount() {
+		return panels.size();
+	}
+
+	/**
+	 * Sets where the text of the panel at the specified index is shortened if it
+	 * does not fit into the panel.
+	 *
+	 * @param index    The index of the panel.
+	 * @param ellipsis The position of the ellipsis, or Ellipsis.NONE to clip the
+	 *                 text.
+	 */
+	public void setPanelEllipsis(int index, Ellipsis ellipsis) {
+		if (ellipsis == null) {
+			throw new IllegalArgumentException();
+		}
+
+		if (index >= 0 && index < panels.size()) {
+			Panel panel = panels.get(index);
+			if (panel.ellipsis != ellipsis) {
+				panel.ellipsis = ellipsis;
+				showText(panel);
+			}
+		}
+	}
+
+	/**
+	 * Sets the width policy of the panel at the specified index.
+	 *
+	 * @param index  The index of the panel.
+	 * @param policy The width policy of the panel.
+	 * @param width  The width in pixels for WidthPolicy.FIXED, the number of
+	 *               characters for WidthPolicy.CHARS, ignored otherwise.
+	 */
+	public void setPanelWidth(int index, WidthPolicy policy, int width) {
+		checkWidth(policy, width);
+		if (index >= 0 && index < panels.size()) {
+			Panel panel = panels.get(index);
+			panel.policy = policy;
+			panel.width = width;
+			if (updateWidth(panel)) {
+				relayout(panel);
+			}
 		}
 	}
 
@@ -49,13 +296,65 @@ public class StatusBar extends Composite {
 	 * @return The text of the panel at the specified index, or null if the index is out of range.
 	 */
 	public String getPanelText(int index) {
-		if (index >= 0 && index < panels.length) {
-			return panels[index].getText();
+		if (index >= 0 && index < panels.size()) {
+			return panels.get(index).text;
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Posts the text of the panel at the specified index. This method can be
+	 * called from any thread. If the panel already has a pending text, it is
+	 * replaced and counted as dropped.
+	 *
+	 * @param index The index of the panel whose text to set.
+	 * @param text The text to set for the panel at the specified index.
+	 */
+	public void postPanelText(int index, String text) {
+		synchronized (pendingLock) {
+			if (pendingTexts.put(index, text) != null) {
+				droppedUpdates.incrementAndGet();
+			}
+			if (flushScheduled) {
+				return;
+			}
+			flushScheduled = true;
+		}
+		try {
+			display.asyncExec(flushRunnable);
+		} catch (SWTException ex) {
+			// The display has been disposed, so the update is dropped
+		}
+	}
+
+	/**
+	 * Returns the number of posted texts that were replaced before being shown.
+	 *
+	 * @return The number of dropped updates.
+	 */
+	public long getDroppedUpdates() {
+		return droppedUpdates.get();
+	}
+
+	/**
+	 * Returns the number of passes that showed pending panel texts.
+	 *
+	 * @return The number of flushes.
+	 */
+	public long getFlushCount() {
+		return flushes.get();
+	}
+
+	/**
+	 * Sets the maximum number of passes per second that show posted panel texts.
+	 *
+	 * @param rate The maximum update rate in hertz.
+	 */
+	public void setMaxUpdateRate(int rate) {
+		flushIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+	}
+
 	/**
 	 * Sets the text of the panel at the specified index.
 	 *
@@ -63,11 +362,349 @@ public class StatusBar extends Composite {
 	 * @param text The text to set for the panel at the specified index.
 	 */
 	public void setPanelText(int index, String text) {
-		if (index >= 0 && index < panels.length) {
-			panels[index].setText(text);
+		if (text == null) {
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+
+		if (index >= 0 && index < panels.size()) {
+			Panel panel = panels.get(index);
+			if (text.equals(panel.text)) {
+				return;
+			}
+
+			long start = UIInstrumentation.start();
+			panel.text = text;
+			panel.extent = null;
+			panel.prefixWidths = null;
+			if (panel.policy == WidthPolicy.CONTENT && updateWidth(panel)) {
+				relayout(panel);
+			}
+			showText(panel);
+			UIInstrumentation.end(start, this, "StatusBar.setPanelText");
+		}
+	}
+
+	/**
+	 * Checks whether the panels are painted on a single canvas.
+	 *
+	 * @return True if the panels are owner-drawn, false if they are native text
+	 *         widgets.
+	 */
+	public boolean isOwnerDrawn() {
+		return canvas != null;
+	}
+
+	/**
+	 * Shows all pending panel texts, or reschedules itself if the previous pass
+	 * was too recent. Runs on the UI thread.
+	 */
+	private void flushPanelTexts() {
+		if (isDisposed()) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		long remaining = lastFlushNanos + flushIntervalNanos - now;
+		if (lastFlushNanos != 0 && remaining > 0) {
+			display.timerExec((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)), flushRunnable);
+			return;
+		}
+
+		long start = UIInstrumentation.start();
+		Map<Integer, String> texts;
+		synchronized (pendingLock) {
+			texts = pendingTexts;
+			pendingTexts = new LinkedHashMap<>();
+			flushScheduled = false;
+		}
+
+		for (Map.Entry<Integer, String> entry : texts.entrySet()) {
+			setPanelText(entry.getKey(), entry.getValue());
+		}
+		lastFlushNanos = now;
+		flushes.incrementAndGet();
+		UIInstrumentation.end(start, this, "StatusBar.flushPanelTexts");
+	}
+
+	/**
+	 * Creates a panel, with a native text widget unless the panels are
+	 * owner-drawn.
+	 *
+	 * @param policy The width policy of the panel.
+	 * @param width  The width parameter of the policy.
+	 * @return The panel.
+	 */
+	private Panel createPanel(WidthPolicy policy, int width) {
+		Panel panel = new Panel();
+		panel.policy = policy;
+		panel.width = width;
+		if (canvas == null) {
+			panel.widget = new Text(this, SWT.BORDER | SWT.CENTER | SWT.NO_SCROLL | SWT.READ_ONLY | SWT.SINGLE);
+			panel.widget.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+			panel.widget.addListener(SWT.Resize, new Listener() {
+				@Override
+				public void handleEvent(Event e) {
+					if (panel.ellipsis != Ellipsis.NONE && panel.widget.getClientArea().width != panel.fittedWidth) {
+						showText(panel);
+					}
+				}
+			});
+			panel.trim = panel.widget.computeTrim(0, 0, 0, 0).width;
+		} else {
+			panel.trim = 2 * PADDING;
+		}
+		updateWidth(panel);
+		return panel;
+	}
+
+	/**
+	 * Shows the text of a panel, shortened according to its ellipsis if it does
+	 * not fit into the panel.
+	 *
+	 * @param panel The panel.
+	 */
+	private void showText(Panel panel) {
+		String shown = panel.text;
+		Point shownExtent = null;
+		if (panel.ellipsis != Ellipsis.NONE && !shown.isEmpty()) {
+			Control control = panel.widget != null ? panel.widget : canvas;
+			panel.fittedWidth = panel.widget != null ? panel.widget.getClientArea().width : panel.bounds.width;
+			if (panel.prefixWidths == null) {
+				panel.prefixWidths = Dimension.getPrefixWidths(control, panel.text);
+			}
+			int available = panel.fittedWidth - 2 * PADDING;
+			if (panel.prefixWidths[shown.length()] > available) {
+				int[] widths = panel.prefixWidths;
+				int ellipsisWidth = Dimension.getTextExtents(control, ELLIPSIS)[0].x;
+				int[] kept = ellipsize(widths, panel.ellipsis, available - ellipsisWidth);
+				shown = panel.text.substring(0, kept[0]) + ELLIPSIS + panel.text.substring(kept[1]);
+				shownExtent = new Point(widths[kept[0]] + widths[widths.length - 1] - widths[kept[1]] + ellipsisWidth,
+						Dimension.getTextSize(control).y);
+			}
+		}
+		if (shown.equals(panel.shown)) {
+			return;
+		}
+
+		panel.shown = shown;
+		panel.shownExtent = shownExtent;
+		if (panel.widget != null) {
+			panel.widget.setText(shown);
+		} else {
+			Rectangle bounds = panel.bounds;
+			canvas.redraw(bounds.x, bounds.y, bounds.width, bounds.height, false);
+		}
+	}
+
+	/**
+	 * Determines which characters of a text to keep around the ellipsis so that
+	 * they fit into the specified width.
+	 *
+	 * @param widths    The widths of the prefixes of the text.
+	 * @param ellipsis  The position of the ellipsis.
+	 * @param available The width available for the characters kept.
+	 * @return The length of the kept head and the start of the kept tail.
+	 */
+	private static int[] ellipsize(int[] widths, Ellipsis ellipsis, int available) {
+		int length = widths.length - 1;
+		int total = widths[length];
+		if (available <= 0) {
+			return new int[] { 0, length };
+		}
+
+		switch (ellipsis) {
+		case START:
+			return new int[] { 0, firstPrefixAtLeast(widths, total - available) };
+		case MIDDLE:
+			int head = lastPrefixAtMost(widths, available / 2);
+			return new int[] { head, Math.max(head, firstPrefixAtLeast(widths, total - (available - widths[head]))) };
+		default:
+			return new int[] { lastPrefixAtMost(widths, available), length };
+		}
+	}
+
+	/**
+	 * Finds the longest prefix whose width does not exceed a limit.
+	 *
+	 * @param widths The ascending widths of the prefixes.
+	 * @param limit  The maximum width.
+	 * @return The length of the prefix.
+	 */
+	private static int lastPrefixAtMost(int[] widths, int limit) {
+		int low = 0;
+		int high = widths.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (widths[mid] <= limit) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the shortest prefix whose width reaches a limit.
+	 *
+	 * @param widths The ascending widths of the prefixes.
+	 * @param limit  The minimum width.
+	 * @return The length of the prefix.
+	 */
+	private static int firstPrefixAtLeast(int[] widths, int limit) {
+		int low = 0;
+		int high = widths.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (widths[mid] >= limit) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Computes the width of a panel from its policy and, for native panels,
+	 * updates the layout data of its widget.
+	 *
+	 * @param panel The panel.
+	 * @return True if the width of the panel changed, false otherwise.
+	 */
+	private boolean updateWidth(Panel panel) {
+		Control control = panel.widget != null ? panel.widget : canvas;
+		int width;
+		switch (panel.policy) {
+		case FIXED:
+			width = panel.width;
+			break;
+		case CHARS:
+			width = panel.width * Dimension.getTextSize(control).x + panel.trim;
+			break;
+		case CONTENT:
+			if (panel.extent == null && !panel.text.isEmpty()) {
+				panel.extent = Dimension.getTextExtents(control, panel.text)[0];
+			}
+			width = (panel.extent != null ? panel.extent.x : 0) + panel.trim;
+			break;
+		default:
+			width = -1;
+			break;
+		}
+		if (width == panel.preferredWidth) {
+			return false;
+		}
+
+		panel.preferredWidth = width;
+		if (panel.widget != null) {
+			GridData gridData = (GridData) panel.widget.getLayoutData();
+			gridData.grabExcessHorizontalSpace = width < 0;
+			gridData.widthHint = Math.max(0, width - panel.trim);
+		}
+		return true;
+	}
+
+	/**
+	 * Lays out the status bar again after the width of a panel changed.
+	 *
+	 * @param panel The panel whose width changed.
+	 */
+	private void relayout(Panel panel) {
+		if (panel.widget != null) {
+			layout(new Control[] { panel.widget });
+		} else {
+			layoutPanels(true);
+		}
+	}
+
+	/**
+	 * Checks the parameters of a width policy.
+	 *
+	 * @param policy The width policy.
+	 * @param width  The width parameter of the policy.
+	 */
+	private static void checkWidth(WidthPolicy policy, int width) {
+		if (policy == null || width < 0) {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	/**
+	 * Computes the bounds of the owner-drawn panels. Panels with a width policy
+	 * other than WidthPolicy.FILL get their cached width, and the filling panels
+	 * share the remaining width equally.
+	 *
+	 * @param redraw True to redraw the panels whose bounds changed, false if the
+	 *               caller redraws the whole canvas.
+	 */
+	private void layoutPanels(boolean redraw) {
+		Rectangle area = canvas.getClientArea();
+		int count = panels.size();
+		int fixed = 0;
+		int fills = 0;
+		for (Panel panel : panels) {
+			if (panel.preferredWidth < 0) {
+				fills++;
+			} else {
+				fixed += panel.preferredWidth;
+			}
+		}
+
+		int free = Math.max(0, area.width - 2 * MARGIN - Math.max(0, count - 1) * SPACING - fixed);
+		int height = Math.max(0, area.height - 2 * MARGIN);
+		int x = area.x + MARGIN;
+		int fill = 0;
+		for (Panel panel : panels) {
+			int width = panel.preferredWidth;
+			if (width < 0) {
+				width = free * (fill + 1) / fills - free * fill / fills;
+				fill++;
+			}
+			Rectangle bounds = new Rectangle(x, area.y + MARGIN, width, height);
+			if (redraw && !bounds.equals(panel.bounds)) {
+				Rectangle damage = bounds.union(panel.bounds);
+				canvas.redraw(damage.x, damage.y, damage.width, damage.height, false);
+			}
+			panel.bounds = bounds;
+			if (panel.ellipsis != Ellipsis.NONE && width != panel.fittedWidth) {
+				showText(panel);
+			}
+			x += width + SPACING;
 		}
 	}
 
+	/**
+	 * Paints the owner-drawn panels intersecting the damaged area.
+	 *
+	 * @param gc     The graphics context of the canvas.
+	 * @param damage The area to repaint.
+	 */
+	private void paintPanels(GC gc, Rectangle damage) {
+		gc.setForeground(display.getSystemColor(SWT.COLOR_WIDGET_NORMAL_SHADOW));
+		for (Panel panel : panels) {
+			Rectangle bounds = panel.bounds;
+			if (bounds.width > 0 && bounds.intersects(damage)) {
+				gc.drawRectangle(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+			}
+		}
+
+		gc.setForeground(canvas.getForeground());
+		for (Panel panel : panels) {
+			Rectangle bounds = panel.bounds;
+			if (bounds.width > 2 * PADDING && bounds.intersects(damage) && !panel.shown.isEmpty()) {
+				if (panel.shownExtent == null) {
+					// Measure with the paint GC, keeping transient texts out of the shared cache
+					panel.shownExtent = gc.textExtent(panel.shown);
+				}
+				gc.setClipping(bounds.x + PADDING, bounds.y, bounds.width - 2 * PADDING, bounds.height);
+				gc.drawText(panel.shown, bounds.x + (bounds.width - panel.shownExtent.x) / 2,
+						bounds.y + (bounds.height - panel.shownExtent.y) / 2, true);
+			}
+		}
+		gc.setClipping((Rectangle) null);
+	}
+
 	/**
 	 * Sets the visibility of the status bar.
 	 *
@@ -81,4 +718,23 @@ public class StatusBar extends Composite {
 		}
 		super.setVisible(visible);
 	}
+
+	/**
+	 * A panel of the status bar.
+	 */
+	private static final class Panel {
+		private String text = "";
+		private String shown = "";
+		private Text widget;
+		private Rectangle bounds = new Rectangle(0, 0, 0, 0);
+		private Point extent;
+		private Point shownExtent;
+		private int[] prefixWidths;
+		private Ellipsis ellipsis = Ellipsis.NONE;
+		private int fittedWidth = -1;
+		private WidthPolicy policy;
+		private int width;
+		private int trim;
+		private int preferredWidth = Integer.MIN_VALUE;
+	}
 }
\ No newline at end of file
@@ -1,14 +1,40 @@
 package org.swtextensions;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A utility class for managing tab indexes associated with dialog classes.
  * This class uses a static map to store and retrieve tab indexes based on dialog class names.
+ * <p>
+ * The map is safe for concurrent use. If a store file is set, the map is loaded
+ * from it at first access, and changes are written back in the background,
+ * batched after a short delay, so that storing a tab index never blocks on I/O.
  */
 public final class TabManager {
-	private static Map<String, Integer> map = new HashMap<>();
+	private static final int FILE_VERSION = 1;
+	private static final long WRITE_DELAY_MILLIS = 500;
+
+	private static final Map<String, Integer> map = new ConcurrentHashMap<>();
+	private static final Object lock = new Object();
+	private static final Object writeLock = new Object();
+	private static Path storeFile;
+	private static volatile boolean loaded;
+	private static boolean writeScheduled;
+	private static ScheduledExecutorService writer;
 
 	// Private constructor to prevent instantiation of this class.
 	private TabManager() {
@@ -21,7 +47,19 @@ public final class TabManager {
 	 * @return The tab index associated with the dialog class, or 0 if not found.
 	 */
 	public static int get(String dialogClass) {
-		return map.containsKey(dialogClass) ? map.get(dialogClass) : 0;
+		ensureLoaded();
+		Integer tabIndex = map.get(dialogClass);
+		return tabIndex != null ? tabIndex : 0;
+	}
+
+	/**
+	 * Retrieves the tab index associated with the specified dialog class.
+	 *
+	 * @param dialogClass The dialog class for which to retrieve the tab index.
+	 * @return The tab index associated with the dialog class, or 0 if not found.
+	 */
+	public static int get(Class<?> dialogClass) {
+		return get(dialogClass.getName());
 	}
 
 	/**
@@ -31,6 +69,152 @@ public final class TabManager {
 	 * @param tabIndex    The tab index to be associated with the dialog class.
 	 */
 	public static void put(String dialogClass, int tabIndex) {
-		map.put(dialogClass, tabIndex);
+		ensureLoaded();
+		Integer previous = map.put(dialogClass, tabIndex);
+		if (previous == null || previous != tabIndex) {
+			scheduleWrite();
+		}
+	}
+
+	/**
+	 * Associates the specified tab index with the given dialog class.
+	 *
+	 * @param dialogClass The dialog class to associate with the tab index.
+	 * @param tabIndex    The tab index to be associated with the dialog class.
+	 */
+	public static void put(Class<?> dialogClass, int tabIndex) {
+		put(dialogClass.getName(), tabIndex);
+	}
+
+	/**
+	 * Sets the file in which the tab indexes are stored. Pending changes are
+	 * written to the previous file first, and the new file is loaded before
+	 * further changes are written to it.
+	 *
+	 * @param file The store file, or null to keep the tab indexes in memory only.
+	 */
+	public static void setStoreFile(Path file) {
+		synchronized (writeLock) {
+			write();
+			synchronized (lock) {
+				storeFile = file;
+				loaded = false;
+			}
+			ensureLoaded();
+		}
+	}
+
+	/**
+	 * Writes pending changes to the store file immediately.
+	 */
+	public static void flush() {
+		write();
+	}
+
+	/**
+	 * Loads the store file once, keeping tab indexes that were set before.
+	 */
+	private static void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		synchronized (lock) {
+			if (!loaded) {
+				load();
+				// Published only after loading, since readers check the flag without locking
+				loaded = true;
+			}
+		}
+	}
+
+	/**
+	 * Reads the store file into the map, keeping tab indexes that were set
+	 * before.
+	 */
+	private static void load() {
+		if (storeFile == null || !Files.isRegularFile(storeFile)) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storeFile)))) {
+			if (in.readInt() != FILE_VERSION) {
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String dialogClass = in.readUTF();
+				map.putIfAbsent(dialogClass, in.readInt());
+			}
+		} catch (IOException ex) {
+			// A missing or damaged store file only loses remembered tab indexes
+		}
+	}
+
+	/**
+	 * Schedules a background write of the store file unless one is pending.
+	 */
+	private static void scheduleWrite() {
+		synchronized (lock) {
+			if (storeFile == null || writeScheduled) {
+				return;
+			}
+			writeScheduled = true;
+
+			if (writer == null) {
+				writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "TabManager writer");
+					thread.setDaemon(true);
+					return thread;
+				});
+				Runtime.getRuntime().addShutdownHook(new Thread(TabManager::flush, "TabManager shutdown"));
+			}
+			writer.schedule(TabManager::write, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the tab indexes to the store file if changes are
+	 * pending.
+	 */
+	private static void write() {
+		synchronized (writeLock) {
+			Path file;
+			Map<String, Integer> snapshot;
+			synchronized (lock) {
+				if (!writeScheduled || storeFile == null) {
+					return;
+				}
+				writeScheduled = false;
+				file = storeFile.toAbsolutePath();
+				snapshot = new HashMap<>(map);
+			}
+
+			Path tempFile = null;
+			try {
+				Files.createDirectories(file.getParent());
+				tempFile = Files.createTempFile(file.getParent(), "tabs", ".tmp");
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+					out.writeInt(FILE_VERSION);
+					out.writeInt(snapshot.size());
+					for (Map.Entry<String, Integer> entry : snapshot.entrySet()) {
+						out.writeUTF(entry.getKey());
+						out.writeInt(entry.getValue());
+					}
+				}
+				try {
+					Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} catch (IOException ex) {
+				// Keep the changes in memory; the next change retries the write
+				if (tempFile != null) {
+					try {
+						Files.deleteIfExists(tempFile);
+					} catch (IOException ignored) {
+					}
+				}
+			}
+		}
 	}
-}
\ No newline at end of file
+}
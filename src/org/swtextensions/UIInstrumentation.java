@@ -0,0 +1,250 @@
+package org.swtextensions;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * Utility object for measuring how long the library's listeners and layout
+ * passes hold the UI thread.
+ * <p>
+ * When enabled, every measured operation is recorded as a flight recorder event
+ * and in a duration histogram per operation, which can be read through JMX
+ * under the name {@value #OBJECT_NAME}. When disabled, a measurement costs a
+ * single volatile read. The instrumentation can also be enabled with the system
+ * property {@value #ENABLED_PROPERTY}.
+ */
+public final class UIInstrumentation {
+	public static final String OBJECT_NAME = "org.swtextensions:type=UIInstrumentation";
+	public static final String ENABLED_PROPERTY = "swtextensions.instrumentation";
+
+	private static final int BUCKET_COUNT = 64;
+
+	private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+	private static final ThreadLocal<ArrayDeque<UIOperationEvent>> events = ThreadLocal.withInitial(ArrayDeque::new);
+	private static volatile boolean enabled;
+	private static boolean registered;
+
+	static {
+		if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+			setEnabled(true);
+		}
+	}
+
+	// Private constructor to prevent instantiation of this class.
+	private UIInstrumentation() {
+	}
+
+	/**
+	 * Returns whether the instrumentation records operations.
+	 *
+	 * @return True if the instrumentation is enabled, false otherwise.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether the instrumentation records operations. Enabling it registers
+	 * the management bean on first use.
+	 *
+	 * @param enabled True to enable the instrumentation, false to disable it.
+	 */
+	public static synchronized void setEnabled(boolean enabled) {
+		if (enabled && !registered) {
+			registered = true;
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(
+						new StandardMBean(new ManagementBean(), UIInstrumentationMXBean.class, true),
+						new ObjectName(OBJECT_NAME));
+			} catch (JMException ex) {
+				// The histograms can still be read through the flight recorder events
+			}
+		}
+		UIInstrumentation.enabled = enabled;
+	}
+
+	/**
+	 * Starts measuring an operation. If flight recording of the operations is
+	 * enabled, the event is begun here, so that its duration covers the
+	 * operation.
+	 *
+	 * @return The start time to pass to {@link #end(long, Widget, String)}, or 0
+	 *         if the instrumentation is disabled.
+	 */
+	public static long start() {
+		if (!enabled) {
+			return 0;
+		}
+
+		UIOperationEvent event = new UIOperationEvent();
+		if (!event.isEnabled()) {
+			return System.nanoTime();
+		}
+
+		// Begin the event now, so that its recorded duration covers the operation
+		event.begin();
+		long start = System.nanoTime();
+		event.startNanos = start;
+		events.get().push(event);
+		return start;
+	}
+
+	/**
+	 * Ends measuring an operation and records its duration.
+	 *
+	 * @param start     The start time returned by {@link #start()}.
+	 * @param widget    The widget the operation ran on.
+	 * @param operation The name of the operation.
+	 */
+	public static void end(long start, Widget widget, String operation) {
+		if (start == 0) {
+			return;
+		}
+
+		long duration = System.nanoTime() - start;
+		UIOperationEvent event = findEvent(start);
+		if (event != null) {
+			event.end();
+		}
+
+		Histogram histogram = histograms.get(operation);
+		if (histogram == null) {
+			histogram = histograms.computeIfAbsent(operation, key -> new Histogram());
+		}
+		histogram.record(duration);
+
+		if (event != null) {
+			event.operation = operation;
+			event.widget = widget != null ? widget.getClass().getName() : null;
+			event.operationDuration = duration;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Removes the event begun by the matching call of {@link #start()} from the
+	 * events of the current thread. Events of operations that ended without
+	 * calling {@link #end(long, Widget, String)}, e.g. because of an exception,
+	 * are discarded on the way.
+	 *
+	 * @param start The start time of the operation.
+	 * @return The event, or null if no event was begun for the operation.
+	 */
+	private static UIOperationEvent findEvent(long start) {
+		ArrayDeque<UIOperationEvent> stack = events.get();
+		while (!stack.isEmpty()) {
+			UIOperationEvent event = stack.pop();
+			if (event.startNanos == start) {
+				return event;
+			}
+			if (event.startNanos < start) {
+				// Begun by an enclosing operation that is still running
+				stack.push(event);
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Collects one value per operation.
+	 *
+	 * @param value The function extracting the value of a histogram.
+	 * @return A sorted map from operation names to values.
+	 */
+	private static Map<String, Long> collect(ToLongFunction<Histogram> value) {
+		Map<String, Long> values = new TreeMap<>();
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			values.put(entry.getKey(), value.applyAsLong(entry.getValue()));
+		}
+		return values;
+	}
+
+	/**
+	 * A lock-free histogram of durations with power-of-two buckets.
+	 */
+	private static final class Histogram {
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong total = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		/**
+		 * Records a duration.
+		 *
+		 * @param nanos The duration in nanoseconds.
+		 */
+		private void record(long nanos) {
+			buckets.incrementAndGet(Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+			count.incrementAndGet();
+			total.addAndGet(nanos);
+			max.accumulateAndGet(nanos, Math::max);
+		}
+
+		/**
+		 * Copies the bucket counts.
+		 *
+		 * @return The bucket counts.
+		 */
+		private long[] toArray() {
+			long[] values = new long[BUCKET_COUNT];
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				values[i] = buckets.get(i);
+			}
+			return values;
+		}
+	}
+
+	/**
+	 * The management bean exposing the histograms.
+	 */
+	private static final class ManagementBean implements UIInstrumentationMXBean {
+		@Override
+		public boolean isEnabled() {
+			return UIInstrumentation.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			UIInstrumentation.setEnabled(enabled);
+		}
+
+		@Override
+		public Map<String, Long> getCounts() {
+			return collect(histogram -> histogram.count.get());
+		}
+
+		@Override
+		public Map<String, Long> getTotalNanos() {
+			return collect(histogram -> histogram.total.get());
+		}
+
+		@Override
+		public Map<String, Long> getMaxNanos() {
+			return collect(histogram -> histogram.max.get());
+		}
+
+		@Override
+		public long[] getHistogram(String operation) {
+			Histogram histogram = histograms.get(operation);
+			return histogram != null ? histogram.toArray() : new long[0];
+		}
+
+		@Override
+		public void reset() {
+			histograms.clear();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.swtextensions;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link UIInstrumentation}.
+ */
+public interface UIInstrumentationMXBean {
+	/**
+	 * Returns whether the instrumentation records operations.
+	 *
+	 * @return True if the instrumentation is enabled, false otherwise.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Sets whether the instrumentation records operations.
+	 *
+	 * @param enabled True to enable the instrumentation, false to disable it.
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Returns the number of recorded calls per operation.
+	 *
+	 * @return A map from operation names to call counts.
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * Returns the total duration per operation.
+	 *
+	 * @return A map from operation names to total durations in nanoseconds.
+	 */
+	Map<String, Long> getTotalNanos();
+
+	/**
+	 * Returns the longest duration per operation.
+	 *
+	 * @return A map from operation names to maximum durations in nanoseconds.
+	 */
+	Map<String, Long> getMaxNanos();
+
+	/**
+	 * Returns the duration histogram of an operation. Bucket i counts the calls
+	 * that took less than 2^i nanoseconds but at least 2^(i-1).
+	 *
+	 * @param operation The name of the operation.
+	 * @return The bucket counts, or an empty array if the operation is unknown.
+	 */
+	long[] getHistogram(String operation);
+
+	/**
+	 * Discards all recorded durations.
+	 */
+	void reset();
+}
@@ -0,0 +1,29 @@
+package org.swtextensions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight recorder event describing an operation that held the UI thread.
+ */
+@Name("org.swtextensions.UIOperation")
+@Label("UI Operation")
+@Category({ "SWT Extensions" })
+@Description("An operation of the swt-extensions library that ran on the UI thread")
+final class UIOperationEvent extends jdk.jfr.Event {
+	@Label("Operation")
+	String operation;
+
+	@Label("Widget")
+	String widget;
+
+	@Label("Operation Duration")
+	@Timespan(Timespan.NANOSECONDS)
+	long operationDuration;
+
+	// Not recorded; matches the event to the start time returned to the caller
+	transient long startNanos;
+}
@@ -0,0 +1,398 @@
+package org.swtextensions;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A watchdog that detects when the UI thread of a display stops serving events.
+ * <p>
+ * A daemon thread posts a heartbeat to the display with asyncExec and waits for
+ * the UI thread to run it. If the heartbeat is not served within the threshold,
+ * the UI thread is considered stalled: stall listeners are notified, and the
+ * stack of the UI thread is sampled periodically into a bounded ring buffer
+ * until the heartbeat is served, so that the samples of recent stalls can be
+ * dumped to a file. When a stall ends, its duration is reported to the
+ * listeners, to {@link UIInstrumentation} as the operation
+ * {@value #STALL_OPERATION} and optionally in a status bar panel.
+ */
+public final class UIWatchdog {
+	public static final String STALL_OPERATION = "UIWatchdog.stall";
+
+	private static final int DEFAULT_CAPACITY = 256;
+	private static final long MIN_PERIOD_MILLIS = 10;
+
+	private static final Map<Display, UIWatchdog> watchdogs = new ConcurrentHashMap<>();
+
+	private final Display display;
+	private final Thread uiThread;
+	private final Thread thread;
+	private final Runnable heartbeat = this::heartbeat;
+	private final List<StallListener> listeners = new CopyOnWriteArrayList<>();
+	private final Object lock = new Object();
+	private final Sample[] samples = new Sample[DEFAULT_CAPACITY];
+	private volatile long thresholdNanos;
+	private volatile boolean running = true;
+	private volatile StatusBar statusBar;
+	private volatile int statusPanel;
+	private long postedNanos;
+	private boolean stalled;
+	private int sampleCount;
+	private int nextSample;
+	private long stallCount;
+	private long longestStallNanos;
+
+	/**
+	 * Constructs the watchdog of a display and starts its thread.
+	 *
+	 * @param display         The display to watch.
+	 * @param thresholdMillis The time in milliseconds after which an unserved
+	 *                        heartbeat counts as a stall.
+	 */
+	private UIWatchdog(Display display, long thresholdMillis) {
+		this.display = display;
+		this.uiThread = display.getThread();
+		setThreshold(thresholdMillis);
+
+		thread = new Thread(this::run, "UIWatchdog");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Registers a display with its watchdog, creating and starting the watchdog
+	 * if necessary. The watchdog stops when the display is disposed. Must be
+	 * called on the UI thread of the display.
+	 *
+	 * @param display         The display to watch.
+	 * @param thresholdMillis The time in milliseconds after which an unserved
+	 *                        heartbeat counts as a stall.
+	 * @return The watchdog of the display.
+	 */
+	public static UIWatchdog register(Display display, long thresholdMillis) {
+		UIWatchdog watchdog = watchdogs.get(display);
+		if (watchdog == null) {
+			watchdog = new UIWatchdog(display, thresholdMillis);
+			watchdogs.put(display, watchdog);
+			display.disposeExec(() -> unregister(display));
+		} else {
+			watchdog.setThreshold(thresholdMillis);
+		}
+		return watchdog;
+	}
+
+	/**
+	 * Stops the watchdog of a display.
+	 *
+	 * @param display The display whose watchdog to stop.
+	 */
+	public static void unregister(Display display) {
+		UIWatchdog watchdog = watchdogs.remove(display);
+		if (watchdog != null) {
+			watchdog.running = false;
+			watchdog.thread.interrupt();
+		}
+	}
+
+	/**
+	 * Retrieves the watchdog of a display.
+	 *
+	 * @param display The display.
+	 * @return The watchdog of the display, or null if the display is not
+	 *         registered.
+	 */
+	public static UIWatchdog get(Display display) {
+		return watchdogs.get(display);
+	}
+
+	/**
+	 * Sets the time after which an unserved heartbeat counts as a stall.
+	 *
+	 * @param thresholdMillis The threshold in milliseconds.
+	 */
+	public void setThreshold(long thresholdMillis) {
+		if (thresholdMillis <= 0) {
+			throw new IllegalArgumentException();
+		}
+		thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	/**
+	 * Returns the time after which an unserved heartbeat counts as a stall.
+	 *
+	 * @return The threshold in milliseconds.
+	 */
+	public long getThreshold() {
+		return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	/**
+	 * Adds a listener that is notified of stalls. The listener is called on the
+	 * watchdog thread, not on the UI thread.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addStallListener(StallListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a stall listener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeStallListener(StallListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Sets the status bar panel in which the duration of the last stall is shown
+	 * once the UI thread responds again.
+	 *
+	 * @param statusBar The status bar, or null to not report stalls in a status
+	 *                  bar.
+	 * @param index     The index of the panel.
+	 */
+	public void setStatusBar(StatusBar statusBar, int index) {
+		this.statusPanel = index;
+		this.statusBar = statusBar;
+	}
+
+	/**
+	 * Checks whether the UI thread is currently stalled.
+	 *
+	 * @return True if the heartbeat is overdue, false otherwise.
+	 */
+	public boolean isStalled() {
+		synchronized (lock) {
+			return stalled;
+		}
+	}
+
+	/**
+	 * Returns the number of detected stalls.
+	 *
+	 * @return The number of stalls.
+	 */
+	public long getStallCount() {
+		synchronized (lock) {
+			return stallCount;
+		}
+	}
+
+	/**
+	 * Returns the duration of the longest ended stall.
+	 *
+	 * @return The duration in milliseconds.
+	 */
+	public long getLongestStall() {
+		synchronized (lock) {
+			return TimeUnit.NANOSECONDS.toMillis(longestStallNanos);
+		}
+	}
+
+	/**
+	 * Returns the number of stack samples in the ring buffer.
+	 *
+	 * @return The number of samples.
+	 */
+	public int getSampleCount() {
+		synchronized (lock) {
+			return sampleCount;
+		}
+	}
+
+	/**
+	 * Removes all stack samples from the ring buffer.
+	 */
+	public void clearSamples() {
+		synchronized (lock) {
+			Arrays.fill(samples, null);
+			sampleCount = 0;
+			nextSample = 0;
+		}
+	}
+
+	/**
+	 * Writes the stack samples in the ring buffer to a file, oldest first.
+	 *
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void dump(Path file) throws IOException {
+		Sample[] snapshot;
+		synchronized (lock) {
+			snapshot = new Sample[sampleCount];
+			for (int i = 0; i < sampleCount; i++) {
+				snapshot[i] = samples[(nextSample - sampleCount + i + samples.length) % samples.length];
+			}
+		}
+
+		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+			for (Sample sample : snapshot) {
+				writer.write(Instant.ofEpochMilli(sample.time) + " " + uiThread.getName() + " blocked for "
+						+ TimeUnit.NANOSECONDS.toMillis(sample.blockedNanos) + " ms");
+				writer.newLine();
+				for (StackTraceElement element : sample.stack) {
+					writer.write("\tat " + element);
+					writer.newLine();
+				}
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Posts heartbeats and samples the UI thread while it is stalled. Runs on the
+	 * watchdog thread.
+	 */
+	private void run() {
+		while (running) {
+			try {
+				Thread.sleep(Math.max(MIN_PERIOD_MILLIS, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4));
+			} catch (InterruptedException ex) {
+				continue;
+			}
+
+			long now = System.nanoTime();
+			long posted;
+			boolean detected = false;
+			synchronized (lock) {
+				posted = postedNanos;
+				if (posted == 0) {
+					postedNanos = now;
+				} else if (now - posted >= thresholdNanos && !stalled) {
+					stalled = true;
+					stallCount++;
+					detected = true;
+				}
+			}
+
+			if (posted == 0) {
+				try {
+					display.asyncExec(heartbeat);
+				} catch (SWTException ex) {
+					// The display has been disposed
+					running = false;
+				}
+			} else if (now - posted >= thresholdNanos) {
+				StackTraceElement[] stack = uiThread.getStackTrace();
+				addSample(now - posted, stack);
+				if (detected) {
+					for (StallListener listener : listeners) {
+						listener.stallDetected(TimeUnit.NANOSECONDS.toMillis(now - posted), stack);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the heartbeat as served and reports the end of a stall. Runs on the
+	 * UI thread.
+	 */
+	private void heartbeat() {
+		long now = System.nanoTime();
+		long posted;
+		boolean ended;
+		synchronized (lock) {
+			posted = postedNanos;
+			postedNanos = 0;
+			ended = stalled;
+			stalled = false;
+			if (ended) {
+				longestStallNanos = Math.max(longestStallNanos, now - posted);
+			}
+		}
+		if (!ended) {
+			return;
+		}
+
+		long millis = TimeUnit.NANOSECONDS.toMillis(now - posted);
+		if (UIInstrumentation.isEnabled()) {
+			UIInstrumentation.end(posted, null, STALL_OPERATION);
+		}
+		StatusBar bar = statusBar;
+		if (bar != null && !bar.isDisposed()) {
+			bar.setPanelText(statusPanel, "UI blocked for " + millis + " ms");
+		}
+		for (StallListener listener : listeners) {
+			listener.stallEnded(millis);
+		}
+	}
+
+	/**
+	 * Adds a stack sample to the ring buffer, replacing the oldest sample if the
+	 * buffer is full.
+	 *
+	 * @param blockedNanos The time the UI thread has been blocked.
+	 * @param stack        The stack of the UI thread.
+	 */
+	private void addSample(long blockedNanos, StackTraceElement[] stack) {
+		synchronized (lock) {
+			samples[nextSample] = new Sample(System.currentTimeMillis(), blockedNanos, stack);
+			nextSample = (nextSample + 1) % samples.length;
+			sampleCount = Math.min(sampleCount + 1, samples.length);
+		}
+	}
+
+	/**
+	 * A listener that is notified when the UI thread stalls and when it responds
+	 * again.
+	 */
+	public interface StallListener {
+		/**
+		 * Notifies that the UI thread has not served the heartbeat within the
+		 * threshold. Called on the watchdog thread.
+		 *
+		 * @param blockedMillis The time the UI thread has been blocked so far.
+		 * @param stack         The stack of the UI thread.
+		 */
+		void stallDetected(long blockedMillis, StackTraceElement[] stack);
+
+		/**
+		 * Notifies that the UI thread has served the heartbeat after a stall.
+		 * Called on the UI thread.
+		 *
+		 * @param blockedMillis The total time the UI thread was blocked.
+		 */
+		default void stallEnded(long blockedMillis) {
+		}
+	}
+
+	/**
+	 * A stack sample of the stalled UI thread.
+	 */
+	private static final class Sample {
+		private final long time;
+		private final long blockedNanos;
+		private final StackTraceElement[] stack;
+
+		/**
+		 * Constructs a sample.
+		 *
+		 * @param time         The wall-clock time of the sample in milliseconds.
+		 * @param blockedNanos The time the UI thread had been blocked.
+		 * @param stack        The stack of the UI thread.
+		 */
+		private Sample(long time, long blockedNanos, StackTraceElement[] stack) {
+			this.time = time;
+			this.blockedNanos = blockedNanos;
+			this.stack = stack;
+		}
+	}
+}